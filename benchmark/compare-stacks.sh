@@ -0,0 +1,33 @@
+#!/usr/bin/env bash
+# Runs benchmark/orders-load.js at the same offered load against the reactive (WebFlux, R2DBC)
+# and the blocking (MVC, JDBC, virtual threads) stacks, one after the other, on port 9002.
+#
+# PostgreSQL, RabbitMQ, Keycloak and catalog-service must be reachable with the default settings.
+# Usage: TOKEN=<access token> benchmark/compare-stacks.sh [rate] [duration]
+set -euo pipefail
+
+RATE=${1:-200}
+DURATION=${2:-2m}
+READINESS_URL="http://localhost:9002/actuator/health/readiness"
+WORK_DIR=build/stack-benchmark
+cd "$(dirname "$0")/.."
+mkdir -p "${WORK_DIR}"
+
+./gradlew -q bootJar :order-service-blocking:bootJar
+
+run() {
+  local stack=$1 jar=$2
+  shift 2
+  java -jar "${jar}" "$@" > "${WORK_DIR}/${stack}.log" 2>&1 &
+  local pid=$!
+  until curl -fs "${READINESS_URL}" > /dev/null 2>&1; do sleep 0.5; done
+  echo "=== ${stack} at ${RATE} req/s for ${DURATION}"
+  k6 run --quiet -e TOKEN="${TOKEN}" -e RATE="${RATE}" -e DURATION="${DURATION}" \
+    --summary-export "${WORK_DIR}/${stack}.json" benchmark/orders-load.js
+  kill "${pid}"; wait "${pid}" 2> /dev/null || true
+}
+
+# the blocking stack has no book cache: the reactive one looks every book up in the catalog too
+run reactive build/libs/bs-order-service-0.0.1-SNAPSHOT.jar \
+  --bs.book-cache.enabled=false --bs.hot-isbns.prewarm-count=0
+run blocking order-service-blocking/build/libs/order-service-blocking-0.0.1-SNAPSHOT.jar
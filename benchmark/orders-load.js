@@ -0,0 +1,39 @@
+// k6 load test shared by the reactive and the blocking stacks: same offered load against either one.
+// k6 run -e BASE_URL=http://localhost:9002 -e TOKEN=<access token> -e RATE=200 benchmark/orders-load.js
+import http from 'k6/http';
+import { check } from 'k6';
+
+const baseUrl = __ENV.BASE_URL || 'http://localhost:9002';
+const params = {
+    headers: {
+        'Content-Type': 'application/json',
+        'Authorization': `Bearer ${__ENV.TOKEN}`,
+    },
+};
+
+export const options = {
+    scenarios: {
+        // open model: the arrival rate does not depend on the response times of the stack under test
+        orders: {
+            executor: 'constant-arrival-rate',
+            rate: Number(__ENV.RATE || 200),
+            timeUnit: '1s',
+            duration: __ENV.DURATION || '2m',
+            preAllocatedVUs: 100,
+            maxVUs: 2000,
+        },
+    },
+    summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+};
+
+export default function () {
+    // 4 reads for 1 write
+    if (Math.random() < 0.2) {
+        const isbn = `12345678${Math.floor(Math.random() * 90) + 10}`;
+        const res = http.post(`${baseUrl}/orders`, JSON.stringify({ isbn: isbn, quantity: 1 }), params);
+        check(res, { 'order submitted': (r) => r.status === 200 || r.status === 202 });
+    } else {
+        const res = http.get(`${baseUrl}/orders`, params);
+        check(res, { 'orders fetched': (r) => r.status === 200 });
+    }
+}
@@ -0,0 +1,93 @@
+#!/usr/bin/env bash
+# Compares the time needed by order-service to become ready in every startup mode:
+#   jvm       plain executable jar
+#   cds       AppCDS archive produced by a training run
+#   aot       Spring AOT generated code
+#   aot-cds   both of the above
+#   native    GraalVM native executable (requires a GraalVM JDK, skipped otherwise)
+#
+# PostgreSQL, RabbitMQ and Keycloak must be reachable with the default application.yml settings.
+# Usage: [READY_TIMEOUT=seconds] benchmark/startup.sh [runs]
+set -euo pipefail
+
+RUNS=${1:-5}
+READY_TIMEOUT=${READY_TIMEOUT:-120}
+PORT=9002
+READINESS_URL="http://localhost:${PORT}/actuator/health/readiness"
+WORK_DIR=build/startup-benchmark
+cd "$(dirname "$0")/.."
+
+# fails when the process exits, or is not ready within READY_TIMEOUT seconds, instead of waiting forever
+wait_ready() {
+  local start=$1 pid=$2
+  local deadline=$(( start + READY_TIMEOUT * 1000 ))
+  until curl -fs "${READINESS_URL}" > /dev/null 2>&1; do
+    if ! kill -0 "${pid}" 2> /dev/null; then
+      echo "exited before being ready" >&2
+      return 1
+    fi
+    if (( $(date +%s%3N) > deadline )); then
+      echo "not ready after ${READY_TIMEOUT}s" >&2
+      return 1
+    fi
+    sleep 0.05
+  done
+  echo $(( $(date +%s%3N) - start ))
+}
+
+measure() {
+  local mode=$1; shift
+  local total=0
+  for run in $(seq "${RUNS}"); do
+    local start
+    start=$(date +%s%3N)
+    "$@" > "${WORK_DIR}/${mode}.log" 2>&1 &
+    local pid=$!
+    local elapsed
+    if ! elapsed=$(wait_ready "${start}" "${pid}" 2>&1); then
+      kill "${pid}" 2> /dev/null || true; wait "${pid}" 2> /dev/null || true
+      printf "%-8s failed: %s, see %s\n" "${mode}" "${elapsed}" "${WORK_DIR}/${mode}.log"
+      return 0
+    fi
+    kill "${pid}"; wait "${pid}" 2> /dev/null || true
+    total=$(( total + elapsed ))
+  done
+  printf "%-8s %6d ms\n" "${mode}" $(( total / RUNS ))
+}
+
+extract() {
+  local jar=$1 dir=$2
+  rm -rf "${dir}"
+  java -Djarmode=tools -jar "${jar}" extract --destination "${dir}"
+}
+
+train() {
+  local dir=$1; shift
+  java "$@" -XX:ArchiveClassesAtExit="${dir}/app.jsa" -Dspring.context.exit=onRefresh \
+    -Dspring.flyway.enabled=false -jar "${dir}/bs-order-service-0.0.1-SNAPSHOT.jar" > /dev/null
+}
+
+mkdir -p "${WORK_DIR}"
+
+./gradlew -q bootJar
+extract build/libs/bs-order-service-0.0.1-SNAPSHOT.jar "${WORK_DIR}/jvm"
+train "${WORK_DIR}/jvm"
+
+./gradlew -q bootJar -Paot
+extract build/libs/bs-order-service-0.0.1-SNAPSHOT.jar "${WORK_DIR}/aot"
+train "${WORK_DIR}/aot" -Dspring.aot.enabled=true
+
+echo "Average time to readiness over ${RUNS} runs"
+measure jvm java -jar "${WORK_DIR}/jvm/bs-order-service-0.0.1-SNAPSHOT.jar"
+measure cds java -XX:SharedArchiveFile="${WORK_DIR}/jvm/app.jsa" \
+  -jar "${WORK_DIR}/jvm/bs-order-service-0.0.1-SNAPSHOT.jar"
+measure aot java -Dspring.aot.enabled=true -jar "${WORK_DIR}/aot/bs-order-service-0.0.1-SNAPSHOT.jar"
+measure aot-cds java -Dspring.aot.enabled=true -XX:SharedArchiveFile="${WORK_DIR}/aot/app.jsa" \
+  -jar "${WORK_DIR}/aot/bs-order-service-0.0.1-SNAPSHOT.jar"
+
+if command -v native-image > /dev/null; then
+  ./gradlew -q nativeCompile -Pnative
+  measure native build/native/nativeCompile/bs-order-service
+else
+  echo "native   skipped (native-image not found)"
+fi
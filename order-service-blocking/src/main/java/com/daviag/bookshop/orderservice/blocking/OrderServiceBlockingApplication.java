@@ -0,0 +1,16 @@
+package com.daviag.bookshop.orderservice.blocking;
+
+import com.daviag.bookshop.orderservice.config.ClientProperties;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+
+@SpringBootApplication
+@EnableConfigurationProperties(ClientProperties.class)
+public class OrderServiceBlockingApplication {
+
+	public static void main(String[] args) {
+		SpringApplication.run(OrderServiceBlockingApplication.class, args);
+	}
+
+}
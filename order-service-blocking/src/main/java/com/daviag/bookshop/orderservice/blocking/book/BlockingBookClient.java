@@ -0,0 +1,42 @@
+package com.daviag.bookshop.orderservice.blocking.book;
+
+import com.daviag.bookshop.orderservice.book.Book;
+import org.springframework.retry.support.RetryTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientException;
+
+import java.net.SocketTimeoutException;
+import java.util.Optional;
+
+@Component
+public class BlockingBookClient {
+
+    private static final String BOOKS_ROOT_API = "/books/";
+    private final RestClient restClient;
+    // same policy as the reactive BookClient: 3 retries with backoff, none on 404 nor on a read timeout
+    private final RetryTemplate retryTemplate = RetryTemplate.builder()
+            .maxAttempts(4)
+            .exponentialBackoff(100, 2, 1000)
+            .notRetryOn(HttpClientErrorException.NotFound.class)
+            .notRetryOn(SocketTimeoutException.class)
+            .traversingCauses()
+            .build();
+
+    public BlockingBookClient(RestClient restClient) {
+        this.restClient = restClient;
+    }
+
+    public Optional<Book> getBookByIsbn(String isbn) {
+        try {
+            return retryTemplate.execute(context -> Optional.ofNullable(restClient
+                    .get()
+                    .uri(BOOKS_ROOT_API + isbn)
+                    .retrieve()
+                    .body(Book.class)));
+        } catch (RestClientException e) {
+            return Optional.empty();
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.daviag.bookshop.orderservice.blocking.config;
+
+import com.daviag.bookshop.orderservice.config.ClientProperties;
+import org.springframework.boot.web.client.ClientHttpRequestFactories;
+import org.springframework.boot.web.client.ClientHttpRequestFactorySettings;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.client.RestClient;
+
+import java.time.Duration;
+
+@Configuration
+public class ClientConfig {
+
+    @Bean
+    RestClient restClient(ClientProperties clientProperties, RestClient.Builder restClientBuilder) {
+        return restClientBuilder
+                .baseUrl(clientProperties.catalogServiceUri().toString())
+                // same timeout as the reactive BookClient
+                .requestFactory(ClientHttpRequestFactories.get(ClientHttpRequestFactorySettings.DEFAULTS
+                        .withReadTimeout(Duration.ofSeconds(3))))
+                .build();
+    }
+}
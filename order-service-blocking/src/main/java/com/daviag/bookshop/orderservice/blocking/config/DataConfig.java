@@ -0,0 +1,34 @@
+package com.daviag.bookshop.orderservice.blocking.config;
+
+import com.daviag.bookshop.orderservice.order.domain.OrderConverters;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.data.jdbc.repository.config.AbstractJdbcConfiguration;
+import org.springframework.data.jdbc.repository.config.EnableJdbcAuditing;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+import java.util.Optional;
+
+// extends AbstractJdbcConfiguration, in place of the Spring Boot one, to register the converters of the orders columns
+@Configuration
+@EnableJdbcAuditing
+public class DataConfig extends AbstractJdbcConfiguration {
+
+    @Bean
+    AuditorAware<String> auditorAware() {
+        return () ->
+                Optional.ofNullable(SecurityContextHolder.getContext())
+                        .map(SecurityContext::getAuthentication)
+                        .filter(Authentication::isAuthenticated)
+                        .map(Authentication::getName);
+    }
+
+    @Override
+    protected List<?> userConverters() {
+        return OrderConverters.all();
+    }
+}
@@ -0,0 +1,31 @@
+package com.daviag.bookshop.orderservice.blocking.order;
+
+import com.daviag.bookshop.orderservice.order.domain.DuplicateOrderTransitionException;
+import com.daviag.bookshop.orderservice.order.domain.IllegalOrderTransitionException;
+import com.daviag.bookshop.orderservice.order.domain.OrderNotFoundException;
+import com.daviag.bookshop.orderservice.order.domain.OrderStatus;
+import com.daviag.bookshop.orderservice.order.event.OrderDispatchedMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.function.Consumer;
+
+@Slf4j
+@Configuration
+public class BlockingOrderFunctions {
+
+    @Bean
+    public Consumer<OrderDispatchedMessage> dispatchOrder(BlockingOrderService orderService) {
+        return message -> {
+            try {
+                var order = orderService.transitionOrder(message.orderId(), OrderStatus.DISPATCHED);
+                log.info("The order with ID {} is dispatched.", order.id());
+            } catch (DuplicateOrderTransitionException e) {
+                log.info(e.getMessage());
+            } catch (IllegalOrderTransitionException | OrderNotFoundException e) {
+                log.warn("Ignoring order dispatched event: {}", e.getMessage());
+            }
+        };
+    }
+}
@@ -0,0 +1,20 @@
+package com.daviag.bookshop.orderservice.blocking.order;
+
+import com.daviag.bookshop.orderservice.order.domain.Order;
+import org.springframework.data.jdbc.repository.query.Query;
+import org.springframework.data.repository.CrudRepository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface BlockingOrderRepository extends CrudRepository<Order, Long> {
+
+    List<Order> findAllByCreatedBy(String createdBy);
+
+    // same statement as OrderRepository.updateStatus, last_modified_by left as it is for the same reason
+    @Query("UPDATE orders SET status = :newStatus, version = version + 1, last_modified_date = :now " +
+            "WHERE id = :id AND status IN (:previousStatuses) RETURNING *")
+    Optional<Order> updateStatus(Long id, short newStatus, Collection<Short> previousStatuses, Instant now);
+}
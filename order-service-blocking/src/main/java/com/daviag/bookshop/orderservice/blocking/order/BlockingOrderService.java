@@ -0,0 +1,74 @@
+package com.daviag.bookshop.orderservice.blocking.order;
+
+import com.daviag.bookshop.orderservice.blocking.book.BlockingBookClient;
+import com.daviag.bookshop.orderservice.order.domain.DuplicateOrderTransitionException;
+import com.daviag.bookshop.orderservice.order.domain.IllegalOrderTransitionException;
+import com.daviag.bookshop.orderservice.order.domain.Order;
+import com.daviag.bookshop.orderservice.order.domain.OrderNotFoundException;
+import com.daviag.bookshop.orderservice.order.domain.OrderStatus;
+import com.daviag.bookshop.orderservice.order.event.OrderAcceptedMessage;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.stream.function.StreamBridge;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+@Slf4j
+@Service
+@AllArgsConstructor
+public class BlockingOrderService {
+    private final BlockingOrderRepository orderRepository;
+    private final BlockingBookClient bookClient;
+    private final StreamBridge streamBridge;
+
+    public List<Order> getAllOrders(String userId) {
+        return orderRepository.findAllByCreatedBy(userId);
+    }
+
+    // not @Transactional: a JDBC connection would be held during the catalog call
+    public Order submitOrder(String isbn, Integer quantity) {
+        var order = bookClient.getBookByIsbn(isbn)
+                .map(book -> Order.of(book.isbn(), book.title() + " - " + book.author(),
+                        book.price(), quantity, OrderStatus.ACCEPTED))
+                .orElseGet(() -> Order.of(isbn, null, null, quantity, OrderStatus.REJECTED));
+        var savedOrder = orderRepository.save(order);
+        publishOrderAcceptedEvent(savedOrder);
+        return savedOrder;
+    }
+
+    /**
+     * Same contract as OrderService.transitionOrder: a single conditional update, the order
+     * being read again only to tell a duplicate transition from an illegal one.
+     */
+    public Order transitionOrder(Long orderId, OrderStatus newStatus) {
+        if (newStatus.recordsBook()) {
+            throw new IllegalArgumentException(
+                    "Orders move to " + newStatus + " only when resolved with their book");
+        }
+        var previousStatuses = newStatus.previousStatuses();
+        var updatedOrder = previousStatuses.isEmpty()
+                ? Optional.<Order>empty()
+                : orderRepository.updateStatus(orderId, newStatus.code(),
+                        OrderStatus.codes(previousStatuses), Instant.now());
+        return updatedOrder.orElseThrow(() -> {
+            var order = orderRepository.findById(orderId)
+                    .orElseThrow(() -> new OrderNotFoundException(orderId));
+            return order.status() == newStatus
+                    ? new DuplicateOrderTransitionException(orderId, newStatus)
+                    : new IllegalOrderTransitionException(orderId, order.status(), newStatus);
+        });
+    }
+
+    private void publishOrderAcceptedEvent(Order order) {
+        if (!order.status().equals(OrderStatus.ACCEPTED)) {
+            return;
+        }
+        var orderAcceptedMessage = new OrderAcceptedMessage(order.id());
+        log.info("Sending order accepted event with id: {}", order.id());
+        var result = streamBridge.send("acceptOrder-out-0", orderAcceptedMessage);
+        log.info("Result of sendind data for order with id {}: {}", order.id(), result);
+    }
+}
@@ -0,0 +1,64 @@
+package com.daviag.bookshop.orderservice.blocking.order;
+
+import com.daviag.bookshop.orderservice.blocking.config.SecurityConfig;
+import com.daviag.bookshop.orderservice.order.domain.Order;
+import com.daviag.bookshop.orderservice.order.domain.OrderStatus;
+import org.junit.jupiter.api.Test;
+import org.mockito.BDDMockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(BlockingOrderController.class)
+@Import(SecurityConfig.class)
+public class BlockingOrderControllerWebMvcTests {
+
+    private static final String ORDER_REQUEST = """
+            {
+                "isbn": "1234567890",
+                "quantity": 3
+            }
+            """;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private BlockingOrderService orderService;
+
+    @MockBean
+    private JwtDecoder jwtDecoder;
+
+    @Test
+    void whenRequestAuthorizedBookNotAvailableThenRejectOrder() throws Exception {
+        var expectedOrder = Order.of("1234567890", null, null, 3, OrderStatus.REJECTED);
+
+        BDDMockito.given(orderService.submitOrder("1234567890", 3))
+                .willReturn(expectedOrder);
+
+        mockMvc.perform(post("/orders")
+                        .with(jwt().authorities(new SimpleGrantedAuthority("ROLE_customer")))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(ORDER_REQUEST))
+                .andExpect(status().is2xxSuccessful())
+                .andExpect(jsonPath("$.status").value(OrderStatus.REJECTED.name()));
+    }
+
+    @Test
+    void whenRequestUnauthenticatedThen401() throws Exception {
+        mockMvc.perform(post("/orders")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(ORDER_REQUEST))
+                .andExpect(status().isUnauthorized());
+    }
+}
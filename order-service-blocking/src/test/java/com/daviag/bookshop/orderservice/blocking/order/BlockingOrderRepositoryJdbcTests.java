@@ -0,0 +1,87 @@
+package com.daviag.bookshop.orderservice.blocking.order;
+
+import com.daviag.bookshop.orderservice.blocking.config.DataConfig;
+import com.daviag.bookshop.orderservice.book.Price;
+import com.daviag.bookshop.orderservice.order.domain.Order;
+import com.daviag.bookshop.orderservice.order.domain.OrderStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.jdbc.DataJdbcTest;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.time.Instant;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJdbcTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(DataConfig.class)
+@Testcontainers
+public class BlockingOrderRepositoryJdbcTests {
+
+    @Container
+    static PostgreSQLContainer<?> postgresql =
+            new PostgreSQLContainer<>(DockerImageName.parse("postgres:16-alpine"));
+
+    @DynamicPropertySource
+    static void postgresqlProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgresql::getJdbcUrl);
+        registry.add("spring.datasource.username", postgresql::getUsername);
+        registry.add("spring.datasource.password", postgresql::getPassword);
+    }
+
+    @Autowired
+    private BlockingOrderRepository orderRepository;
+
+    @Test
+    void findOrderByIdWhenNotExisting() {
+        assertThat(orderRepository.findById(394L)).isEmpty();
+    }
+
+    @Test
+    void whenAcceptedOrderSavedThenPriceAndStatusReadBack() {
+        var acceptedOrder = Order.of("1234567890", "Title - Author", Price.of("12.34"), 2, OrderStatus.ACCEPTED);
+        var savedOrder = orderRepository.save(acceptedOrder);
+
+        assertThat(orderRepository.findById(savedOrder.id())).hasValueSatisfying(order -> {
+            assertThat(order.bookName()).isEqualTo("Title - Author");
+            assertThat(order.bookPrice()).isEqualTo(Price.of("12.34"));
+            assertThat(order.status()).isEqualTo(OrderStatus.ACCEPTED);
+        });
+    }
+
+    @Test
+    void whenAcceptedOrderDispatchedThenStatusAndVersionUpdated() {
+        var acceptedOrder = orderRepository.save(
+                Order.of("1234567890", "Title - Author", Price.of("9.90"), 1, OrderStatus.ACCEPTED));
+
+        var dispatchedOrder = orderRepository.updateStatus(acceptedOrder.id(), OrderStatus.DISPATCHED.code(),
+                Set.of(OrderStatus.ACCEPTED.code()), Instant.now());
+
+        assertThat(dispatchedOrder).hasValueSatisfying(order -> {
+            assertThat(order.status()).isEqualTo(OrderStatus.DISPATCHED);
+            assertThat(order.bookPrice()).isEqualTo(Price.of("9.90"));
+            assertThat(order.version()).isEqualTo(acceptedOrder.version() + 1);
+        });
+    }
+
+    @Test
+    void whenRejectedOrderDispatchedThenNotUpdated() {
+        var rejectedOrder = orderRepository.save(Order.of("1234567890", null, null, 3, OrderStatus.REJECTED));
+
+        var dispatchedOrder = orderRepository.updateStatus(rejectedOrder.id(), OrderStatus.DISPATCHED.code(),
+                Set.of(OrderStatus.ACCEPTED.code()), Instant.now());
+
+        assertThat(dispatchedOrder).isEmpty();
+        assertThat(orderRepository.findById(rejectedOrder.id()))
+                .hasValueSatisfying(order -> assertThat(order.status()).isEqualTo(OrderStatus.REJECTED));
+    }
+}
@@ -5,6 +5,6 @@ public record Book(
         String isbn,
         String title,
         String author,
-        Double price
+        Price price
 ) {
 }
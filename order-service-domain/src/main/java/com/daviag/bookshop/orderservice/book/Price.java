@@ -0,0 +1,35 @@
+package com.daviag.bookshop.orderservice.book;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Exact amount of money, held as a number of cents. It is read from and written to JSON as a
+ * decimal number, like the prices of the catalog.
+ */
+public record Price(long cents) {
+
+    private static final int SCALE = 2;
+
+    @JsonCreator(mode = JsonCreator.Mode.DELEGATING)
+    public static Price of(BigDecimal amount) {
+        return new Price(amount.setScale(SCALE, RoundingMode.HALF_EVEN).unscaledValue().longValueExact());
+    }
+
+    public static Price of(String amount) {
+        return of(new BigDecimal(amount));
+    }
+
+    @JsonValue
+    public BigDecimal amount() {
+        return BigDecimal.valueOf(cents, SCALE);
+    }
+
+    @Override
+    public String toString() {
+        return amount().toString();
+    }
+}
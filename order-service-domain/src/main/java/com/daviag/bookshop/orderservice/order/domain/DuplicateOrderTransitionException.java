@@ -0,0 +1,9 @@
+package com.daviag.bookshop.orderservice.order.domain;
+
+// the order is already in the requested status, e.g. a redelivered event
+public class DuplicateOrderTransitionException extends RuntimeException {
+
+    public DuplicateOrderTransitionException(Long orderId, OrderStatus status) {
+        super("The order with id " + orderId + " is already " + status + ".");
+    }
+}
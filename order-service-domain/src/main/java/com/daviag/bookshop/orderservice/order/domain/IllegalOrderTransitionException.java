@@ -0,0 +1,8 @@
+package com.daviag.bookshop.orderservice.order.domain;
+
+public class IllegalOrderTransitionException extends RuntimeException {
+
+    public IllegalOrderTransitionException(Long orderId, OrderStatus currentStatus, OrderStatus newStatus) {
+        super("The order with id " + orderId + " cannot move from " + currentStatus + " to " + newStatus + ".");
+    }
+}
@@ -1,5 +1,6 @@
 package com.daviag.bookshop.orderservice.order.domain;
 
+import com.daviag.bookshop.orderservice.book.Price;
 import org.springframework.data.annotation.*;
 import org.springframework.data.relational.core.mapping.Table;
 
@@ -11,7 +12,7 @@ public record Order(
         Long id,
         String bookIsbn,
         String bookName,
-        Double bookPrice,
+        Price bookPrice,
         Integer quantity,
         OrderStatus status,
 
@@ -28,7 +29,7 @@ public record Order(
         @Version
         int version
 ) {
-    public static Order of(String bookIsbn, String bookName, Double bookPrice, Integer quantity, OrderStatus status) {
+    public static Order of(String bookIsbn, String bookName, Price bookPrice, Integer quantity, OrderStatus status) {
         return new Order(null, bookIsbn, bookName, bookPrice, quantity, status,
                 null, null, null, null, 0);
     }
@@ -0,0 +1,65 @@
+package com.daviag.bookshop.orderservice.order.domain;
+
+import com.daviag.bookshop.orderservice.book.Price;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.data.convert.ReadingConverter;
+import org.springframework.data.convert.WritingConverter;
+
+import java.util.List;
+
+/**
+ * Mapping of the compact columns of the orders table: prices are stored as integer cents and
+ * statuses as their smallint code. Shared by the R2DBC and JDBC mappings of {@link Order}.
+ */
+public final class OrderConverters {
+
+    private OrderConverters() {
+    }
+
+    public static List<Converter<?, ?>> all() {
+        return List.of(new PriceWritingConverter(), new PriceReadingConverter(),
+                new StatusWritingConverter(), new StatusReadingConverter(), new IntegerStatusReadingConverter());
+    }
+
+    @WritingConverter
+    static class PriceWritingConverter implements Converter<Price, Integer> {
+        @Override
+        public Integer convert(Price price) {
+            return Math.toIntExact(price.cents());
+        }
+    }
+
+    @ReadingConverter
+    static class PriceReadingConverter implements Converter<Integer, Price> {
+        @Override
+        public Price convert(Integer cents) {
+            return new Price(cents);
+        }
+    }
+
+    @WritingConverter
+    static class StatusWritingConverter implements Converter<OrderStatus, Short> {
+        @Override
+        public Short convert(OrderStatus status) {
+            return status.code();
+        }
+    }
+
+    // R2DBC reads smallint as Short
+    @ReadingConverter
+    static class StatusReadingConverter implements Converter<Short, OrderStatus> {
+        @Override
+        public OrderStatus convert(Short code) {
+            return OrderStatus.fromCode(code);
+        }
+    }
+
+    // JDBC reads smallint as Integer
+    @ReadingConverter
+    static class IntegerStatusReadingConverter implements Converter<Integer, OrderStatus> {
+        @Override
+        public OrderStatus convert(Integer code) {
+            return OrderStatus.fromCode(code);
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.daviag.bookshop.orderservice.order.domain;
+
+public class OrderNotFoundException extends RuntimeException {
+
+    public OrderNotFoundException(Long orderId) {
+        super("The order with id " + orderId + " was not found.");
+    }
+}
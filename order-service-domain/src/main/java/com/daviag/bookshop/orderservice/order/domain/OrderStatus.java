@@ -0,0 +1,58 @@
+package com.daviag.bookshop.orderservice.order.domain;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+public enum OrderStatus {
+    PENDING(0),
+    ACCEPTED(1),
+    REJECTED(2),
+    DISPATCHED(3);
+
+    private final short code;
+
+    OrderStatus(int code) {
+        this.code = (short) code;
+    }
+
+    /**
+     * Code of the status in the status column of the orders table, which must never change.
+     */
+    public short code() {
+        return code;
+    }
+
+    public static OrderStatus fromCode(int code) {
+        return Arrays.stream(values())
+                .filter(status -> status.code == code)
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown order status code " + code));
+    }
+
+    /**
+     * Statuses an order may move to this status from, empty for the initial status.
+     */
+    public Set<OrderStatus> previousStatuses() {
+        return switch (this) {
+            case PENDING -> Set.of();
+            case ACCEPTED, REJECTED -> Set.of(PENDING);
+            case DISPATCHED -> Set.of(ACCEPTED);
+        };
+    }
+
+    /**
+     * Whether an order moving to this status also records the book looked up in the catalog, as
+     * ACCEPTED and REJECTED do when a PENDING order is resolved.
+     */
+    public boolean recordsBook() {
+        return switch (this) {
+            case ACCEPTED, REJECTED -> true;
+            case PENDING, DISPATCHED -> false;
+        };
+    }
+
+    public static Set<Short> codes(Set<OrderStatus> statuses) {
+        return statuses.stream().map(OrderStatus::code).collect(Collectors.toSet());
+    }
+}
@@ -0,0 +1 @@
+CREATE INDEX orders_pending_idx ON orders (created_date) WHERE status = 'PENDING';
@@ -0,0 +1 @@
+CREATE INDEX orders_created_date_idx ON orders (created_date);
@@ -0,0 +1 @@
+CREATE INDEX orders_created_by_idx ON orders (created_by);
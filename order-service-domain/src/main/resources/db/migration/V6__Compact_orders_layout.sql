@@ -0,0 +1,15 @@
+-- the predicate of the partial index compares status to a varchar
+DROP INDEX orders_pending_idx;
+
+-- price in cents, status as the code of OrderStatus. book_name stays with the order: it is the
+-- name of the book when it was ordered, which later catalog changes must not rewrite.
+ALTER TABLE orders
+    ALTER COLUMN book_price TYPE integer USING round(book_price * 100)::integer,
+    ALTER COLUMN status TYPE smallint USING CASE status
+        WHEN 'PENDING' THEN 0
+        WHEN 'ACCEPTED' THEN 1
+        WHEN 'REJECTED' THEN 2
+        WHEN 'DISPATCHED' THEN 3
+    END;
+
+CREATE INDEX orders_pending_idx ON orders (created_date) WHERE status = 0;
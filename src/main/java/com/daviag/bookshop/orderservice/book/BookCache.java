@@ -0,0 +1,79 @@
+package com.daviag.bookshop.orderservice.book;
+
+import com.daviag.bookshop.orderservice.config.BookCacheProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Local, per replica, cache of the books fetched from catalog-service.
+ * Entries are kept up to date by the book-updated events received on every replica.
+ * <p>
+ * Each event is numbered, and the number of the last one is kept per ISBN for as long as a cached
+ * book would be. A book fetched from the catalog is only cached if no event for it was received
+ * since the fetch started: the catalog may have answered with the book as it was before the event.
+ */
+@Component
+public class BookCache {
+
+    // disabled, no book is kept and every lookup goes to the catalog
+    private final boolean enabled;
+    private final Cache<String, Book> books;
+    private final Cache<String, Long> lastEvents;
+    private final AtomicLong eventSequence = new AtomicLong();
+
+    public BookCache(BookCacheProperties properties) {
+        this.enabled = properties.enabled();
+        this.books = Caffeine.newBuilder()
+                .expireAfterWrite(properties.ttl())
+                .maximumSize(properties.maxSize())
+                .build();
+        this.lastEvents = Caffeine.newBuilder()
+                .expireAfterWrite(properties.ttl())
+                .maximumSize(properties.maxSize())
+                .build();
+    }
+
+    public Optional<Book> get(String isbn) {
+        return Optional.ofNullable(books.getIfPresent(isbn));
+    }
+
+    /**
+     * Number of the last event received, to be passed to {@link #putFetched(Book, long)} once the
+     * book fetched from the catalog is back.
+     */
+    public long beginFetch() {
+        return eventSequence.get();
+    }
+
+    /**
+     * Caches the fetched book, unless an event for it was received since {@link #beginFetch()}.
+     * Runs atomically with the events for the same ISBN.
+     */
+    public void putFetched(Book book, long fetchStart) {
+        if (!enabled) {
+            return;
+        }
+        books.asMap().compute(book.isbn(), (isbn, cached) -> {
+            var lastEvent = lastEvents.getIfPresent(isbn);
+            return lastEvent != null && lastEvent > fetchStart ? cached : book;
+        });
+    }
+
+    /**
+     * Refreshes the cached book, if any. Books not cached yet are left alone: they
+     * are fetched from catalog-service on first use.
+     */
+    public void update(Book book) {
+        lastEvents.put(book.isbn(), eventSequence.incrementAndGet());
+        books.asMap().computeIfPresent(book.isbn(), (isbn, cached) -> book);
+    }
+
+    public void evict(String isbn) {
+        lastEvents.put(isbn, eventSequence.incrementAndGet());
+        books.invalidate(isbn);
+    }
+}
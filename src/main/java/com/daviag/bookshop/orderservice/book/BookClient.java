@@ -8,6 +8,7 @@ import reactor.core.publisher.Mono;
 import reactor.util.retry.Retry;
 
 import java.time.Duration;
+import java.util.concurrent.TimeoutException;
 
 @Component
 @RequiredArgsConstructor
@@ -15,17 +16,46 @@ public class BookClient {
 
     private static final String BOOKS_ROOT_API = "/books/";
     private final WebClient webClient;
+    private final BookCache bookCache;
 
+    /**
+     * Completes empty when the book does not exist, but also when catalog-service cannot be reached:
+     * an order for it is then rejected right away.
+     */
     public Mono<Book> getBookByIsbn(String isbn) {
+        return findBookByIsbn(isbn)
+                .onErrorResume(CatalogUnavailableException.class, e -> Mono.empty());
+    }
+
+    /**
+     * Completes empty only when the book does not exist, errors with {@link CatalogUnavailableException}
+     * when catalog-service cannot be reached, so that the caller can try again later.
+     */
+    public Mono<Book> findBookByIsbn(String isbn) {
+        return Mono.defer(() -> Mono.justOrEmpty(bookCache.get(isbn)))
+                .switchIfEmpty(fetchBookByIsbn(isbn));
+    }
+
+    private Mono<Book> fetchBookByIsbn(String isbn) {
+        return Mono.defer(() -> {
+            long fetchStart = bookCache.beginFetch();
+            return requestBookByIsbn(isbn)
+                    .doOnNext(book -> bookCache.putFetched(book, fetchStart));
+        });
+    }
+
+    private Mono<Book> requestBookByIsbn(String isbn) {
         return webClient
                 .get()
                 .uri(BOOKS_ROOT_API + isbn)
                 .retrieve()
                 .bodyToMono(Book.class)
                 // externalize timeout in ClientProperties
-                .timeout(Duration.ofSeconds(3), Mono.empty())
+                .timeout(Duration.ofSeconds(3))
                 .onErrorResume(WebClientResponseException.NotFound.class, e -> Mono.empty())
-                .retryWhen(Retry.backoff(3, Duration.ofMillis(100)))
-                .onErrorResume(Exception.class, e -> Mono.empty());
+                // a timed out request is not retried: the caller would wait well past the timeout
+                .retryWhen(Retry.backoff(3, Duration.ofMillis(100))
+                        .filter(e -> !(e instanceof TimeoutException)))
+                .onErrorMap(e -> new CatalogUnavailableException(isbn, e));
     }
 }
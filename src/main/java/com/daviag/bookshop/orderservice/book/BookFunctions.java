@@ -0,0 +1,28 @@
+package com.daviag.bookshop.orderservice.book;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.function.Consumer;
+
+@Slf4j
+@Configuration
+public class BookFunctions {
+
+    @Bean
+    public Consumer<BookUpdatedMessage> bookUpdated(BookCache bookCache) {
+        return message -> {
+            if (message.deleted()) {
+                log.info("The book with ISBN {} is deleted, evicting it.", message.isbn());
+                bookCache.evict(message.isbn());
+            } else if (message.complete()) {
+                log.info("The book with ISBN {} is updated.", message.isbn());
+                bookCache.update(message.toBook());
+            } else {
+                log.warn("The update of the book with ISBN {} has no title or price, evicting it.", message.isbn());
+                bookCache.evict(message.isbn());
+            }
+        };
+    }
+}
@@ -0,0 +1,19 @@
+package com.daviag.bookshop.orderservice.book;
+
+// only the isbn is set when the book has been deleted from the catalog
+public record BookUpdatedMessage(
+        String isbn,
+        String title,
+        String author,
+        Price price,
+        boolean deleted
+) {
+    // an update without title or price cannot be used to refresh a cached book
+    public boolean complete() {
+        return title != null && price != null;
+    }
+
+    public Book toBook() {
+        return new Book(isbn, title, author, price);
+    }
+}
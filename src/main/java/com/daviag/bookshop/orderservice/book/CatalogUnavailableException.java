@@ -0,0 +1,8 @@
+package com.daviag.bookshop.orderservice.book;
+
+public class CatalogUnavailableException extends RuntimeException {
+
+    public CatalogUnavailableException(String isbn, Throwable cause) {
+        super("Catalog could not be reached for the book with ISBN " + isbn + ".", cause);
+    }
+}
@@ -0,0 +1,9 @@
+package com.daviag.bookshop.orderservice.book;
+
+// count is an upper bound of the real number of orders, overestimated by at most error
+public record HotIsbn(
+        String isbn,
+        long count,
+        long error
+) {
+}
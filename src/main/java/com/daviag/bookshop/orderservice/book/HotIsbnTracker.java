@@ -0,0 +1,145 @@
+package com.daviag.bookshop.orderservice.book;
+
+import com.daviag.bookshop.orderservice.config.HotIsbnProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tracks the most ordered ISBNs with the Space-Saving algorithm: memory is bounded by
+ * the number of counters whatever the number of distinct ISBNs, and any ISBN ordered
+ * more than total/capacity times is guaranteed to be tracked.
+ * <p>
+ * Counters are kept in the Stream-Summary structure: a list of buckets sorted by count, each
+ * holding the counters of that count. Recording an order, including the replacement of the
+ * least ordered ISBN, takes constant time, as it runs on the request path.
+ */
+@Component
+public class HotIsbnTracker {
+
+    private final int capacity;
+    private final Map<String, Counter> counters;
+    // bucket of the lowest count, head of the list
+    private Bucket min;
+
+    public HotIsbnTracker(HotIsbnProperties properties) {
+        this.capacity = properties.capacity();
+        this.counters = new HashMap<>(capacity * 2);
+    }
+
+    public synchronized void record(String isbn) {
+        var counter = counters.get(isbn);
+        if (counter != null) {
+            increment(counter);
+            return;
+        }
+        if (counters.size() < capacity) {
+            counter = new Counter(isbn, 0);
+            if (min == null || min.count != 1) {
+                var bucket = new Bucket(1);
+                bucket.next = min;
+                if (min != null) {
+                    min.prev = bucket;
+                }
+                min = bucket;
+            }
+            min.add(counter);
+            counters.put(isbn, counter);
+            return;
+        }
+        // replace the least ordered ISBN, the newcomer inherits its count as error
+        var evicted = min.first;
+        counters.remove(evicted.isbn);
+        evicted.isbn = isbn;
+        evicted.error = min.count;
+        counters.put(isbn, evicted);
+        increment(evicted);
+    }
+
+    public synchronized List<HotIsbn> top(int n) {
+        return counters.values().stream()
+                .map(counter -> new HotIsbn(counter.isbn, counter.bucket.count, counter.error))
+                .sorted(Comparator.comparingLong(HotIsbn::count).reversed())
+                .limit(n)
+                .toList();
+    }
+
+    // moves the counter to the bucket of the next count, created right after its own if missing
+    private void increment(Counter counter) {
+        var bucket = counter.bucket;
+        var next = bucket.next;
+        if (next == null || next.count != bucket.count + 1) {
+            next = new Bucket(bucket.count + 1);
+            next.prev = bucket;
+            next.next = bucket.next;
+            if (bucket.next != null) {
+                bucket.next.prev = next;
+            }
+            bucket.next = next;
+        }
+        bucket.remove(counter);
+        next.add(counter);
+        if (bucket.first == null) {
+            unlink(bucket);
+        }
+    }
+
+    private void unlink(Bucket bucket) {
+        if (bucket.prev != null) {
+            bucket.prev.next = bucket.next;
+        } else {
+            min = bucket.next;
+        }
+        if (bucket.next != null) {
+            bucket.next.prev = bucket.prev;
+        }
+    }
+
+    private static final class Bucket {
+        private final long count;
+        private Bucket prev;
+        private Bucket next;
+        private Counter first;
+
+        private Bucket(long count) {
+            this.count = count;
+        }
+
+        private void add(Counter counter) {
+            counter.bucket = this;
+            counter.prev = null;
+            counter.next = first;
+            if (first != null) {
+                first.prev = counter;
+            }
+            first = counter;
+        }
+
+        private void remove(Counter counter) {
+            if (counter.prev != null) {
+                counter.prev.next = counter.next;
+            } else {
+                first = counter.next;
+            }
+            if (counter.next != null) {
+                counter.next.prev = counter.prev;
+            }
+        }
+    }
+
+    private static final class Counter {
+        private String isbn;
+        private long error;
+        private Bucket bucket;
+        private Counter prev;
+        private Counter next;
+
+        private Counter(String isbn, long error) {
+            this.isbn = isbn;
+            this.error = error;
+        }
+    }
+}
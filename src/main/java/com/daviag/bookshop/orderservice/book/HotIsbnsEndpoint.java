@@ -0,0 +1,24 @@
+package com.daviag.bookshop.orderservice.book;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Component
+@Endpoint(id = "hotisbns")
+@RequiredArgsConstructor
+public class HotIsbnsEndpoint {
+
+    private static final int DEFAULT_TOP = 10;
+    private final HotIsbnTracker hotIsbnTracker;
+
+    @ReadOperation
+    public List<HotIsbn> hotIsbns(@Nullable Integer top) {
+        // a negative top is read as none rather than failing the request
+        return hotIsbnTracker.top(top != null ? Math.max(top, 0) : DEFAULT_TOP);
+    }
+}
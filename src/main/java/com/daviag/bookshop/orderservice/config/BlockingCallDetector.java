@@ -0,0 +1,65 @@
+package com.daviag.bookshop.orderservice.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import reactor.blockhound.BlockHound;
+import reactor.blockhound.BlockingMethod;
+import reactor.blockhound.BlockingOperationError;
+import reactor.blockhound.integration.BlockHoundIntegration;
+
+import java.util.ServiceLoader;
+
+/**
+ * Detects calls blocking a thread that must not block, Netty event loops and Reactor parallel
+ * schedulers, with BlockHound. Opt-in through bs.blocking-detection.enabled, for tests and staging:
+ * the instrumentation slows every blocking call down. See {@link BlockingDetectionProperties}.
+ * BlockHound is only on the classpath of the tests and of the builds made with -PblockingDetection.
+ */
+@Slf4j
+@Component
+@ConditionalOnClass(name = "reactor.blockhound.BlockHound")
+@ConditionalOnProperty(prefix = "bs.blocking-detection", name = "enabled", havingValue = "true")
+public class BlockingCallDetector {
+
+    private final BlockingDetectionProperties properties;
+    private final MeterRegistry meterRegistry;
+    // reporting may itself block, which must not be reported again
+    private final ThreadLocal<Boolean> reporting = ThreadLocal.withInitial(() -> false);
+
+    public BlockingCallDetector(BlockingDetectionProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    public void install() {
+        var builder = BlockHound.builder();
+        // integrations of Reactor and Netty, which tell which threads are non-blocking
+        ServiceLoader.load(BlockHoundIntegration.class).forEach(builder::with);
+        builder.blockingMethodCallback(this::onBlockingCall).install();
+        log.warn("Blocking call detection installed, calls blocking an event loop are {}",
+                properties.action() == BlockingDetectionProperties.Action.FAIL ? "failed" : "reported");
+    }
+
+    void onBlockingCall(BlockingMethod method) {
+        meterRegistry.counter("blocking.calls", "method", method.getClassName() + "." + method.getName())
+                .increment();
+        if (properties.action() == BlockingDetectionProperties.Action.FAIL) {
+            throw new BlockingOperationError(method);
+        }
+        if (reporting.get()) {
+            return;
+        }
+        reporting.set(true);
+        try {
+            log.warn("Blocking call {} on {}", method, Thread.currentThread().getName(),
+                    new BlockingOperationError(method));
+        } finally {
+            reporting.set(false);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.daviag.bookshop.orderservice.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "bs.blocking-detection")
+public record BlockingDetectionProperties(
+        // for tests and staging only, built with -PblockingDetection and run with the JVM option
+        // -XX:+AllowRedefinitionToAddDeleteMethods
+        @DefaultValue("false")
+        boolean enabled,
+        @DefaultValue("report")
+        Action action
+) {
+    public enum Action {
+        // logs the blocking call with its stack trace and counts it in the blocking.calls metric
+        REPORT,
+        // counts the blocking call and fails it with a BlockingOperationError
+        FAIL
+    }
+}
@@ -0,0 +1,19 @@
+package com.daviag.bookshop.orderservice.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "bs.book-cache")
+public record BookCacheProperties(
+        // staleness is bounded by book-updated events, the TTL is only a safety net for missed ones
+        @DefaultValue("1h")
+        Duration ttl,
+        @DefaultValue("10000")
+        long maxSize,
+        // false to look every book up in catalog-service, as the blocking variant does
+        @DefaultValue("true")
+        boolean enabled
+) {
+}
@@ -1,9 +1,13 @@
 package com.daviag.bookshop.orderservice.config;
 
+import com.daviag.bookshop.orderservice.order.domain.OrderConverters;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.domain.ReactiveAuditorAware;
 import org.springframework.data.r2dbc.config.EnableR2dbcAuditing;
+import org.springframework.data.r2dbc.convert.R2dbcCustomConversions;
+import org.springframework.data.r2dbc.dialect.DialectResolver;
+import org.springframework.r2dbc.core.DatabaseClient;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.ReactiveSecurityContextHolder;
 import org.springframework.security.core.context.SecurityContext;
@@ -20,4 +24,11 @@ public class DataConfig {
                         .filter(Authentication::isAuthenticated)
                         .map(Authentication::getName);
     }
+
+    // replaces the conversions auto-configured by Spring Boot, with the converters of the orders columns
+    @Bean
+    R2dbcCustomConversions r2dbcCustomConversions(DatabaseClient databaseClient) {
+        var dialect = DialectResolver.getDialect(databaseClient.getConnectionFactory());
+        return R2dbcCustomConversions.of(dialect, OrderConverters.all());
+    }
 }
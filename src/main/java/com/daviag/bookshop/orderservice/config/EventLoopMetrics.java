@@ -0,0 +1,39 @@
+package com.daviag.bookshop.orderservice.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.netty.util.concurrent.EventExecutor;
+import io.netty.util.concurrent.SingleThreadEventExecutor;
+import org.springframework.stereotype.Component;
+import reactor.netty.http.HttpResources;
+import reactor.netty.resources.LoopResources;
+import reactor.netty.tcp.TcpResources;
+
+/**
+ * Tasks waiting on each Netty event loop: a growing queue means that something holds the loop,
+ * blocking or long running work, and that every connection served by the loop waits. The http
+ * loops serve the HTTP server and WebClient, the tcp loops the R2DBC connections.
+ */
+@Component
+public class EventLoopMetrics implements MeterBinder {
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        bindTo(registry, "http", HttpResources.get());
+        bindTo(registry, "tcp", TcpResources.get());
+    }
+
+    private static void bindTo(MeterRegistry registry, String resources, LoopResources loopResources) {
+        int index = 0;
+        for (EventExecutor executor : loopResources.onServer(LoopResources.DEFAULT_NATIVE)) {
+            if (executor instanceof SingleThreadEventExecutor eventLoop) {
+                Gauge.builder("event.loop.pending.tasks", eventLoop, SingleThreadEventExecutor::pendingTasks)
+                        .description("Tasks waiting to run on the event loop")
+                        .tag("resources", resources)
+                        .tag("loop", String.valueOf(index++))
+                        .register(registry);
+            }
+        }
+    }
+}
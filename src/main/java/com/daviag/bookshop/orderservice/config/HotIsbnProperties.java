@@ -0,0 +1,25 @@
+package com.daviag.bookshop.orderservice.config;
+
+import jakarta.validation.constraints.Positive;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+@Validated
+@ConfigurationProperties(prefix = "bs.hot-isbns")
+public record HotIsbnProperties(
+        // number of counters of the sketch, the top-N is accurate for N well below it
+        @DefaultValue("200")
+        @Positive
+        int capacity,
+        // number of ISBNs looked up in the catalog at startup, 0 disables the pre-warming
+        @DefaultValue("50")
+        int prewarmCount,
+        @DefaultValue("7d")
+        Duration prewarmLookback,
+        @DefaultValue("30s")
+        Duration prewarmTimeout
+) {
+}
@@ -0,0 +1,27 @@
+package com.daviag.bookshop.orderservice.config;
+
+import com.daviag.bookshop.orderservice.book.Book;
+import com.daviag.bookshop.orderservice.book.BookUpdatedMessage;
+import com.daviag.bookshop.orderservice.book.HotIsbn;
+import com.daviag.bookshop.orderservice.book.Price;
+import com.daviag.bookshop.orderservice.order.domain.Order;
+import com.daviag.bookshop.orderservice.order.event.OrderAcceptedMessage;
+import com.daviag.bookshop.orderservice.order.event.OrderDispatchedMessage;
+import com.daviag.bookshop.orderservice.order.web.OrderRequest;
+import org.springframework.aot.hint.annotation.RegisterReflectionForBinding;
+import org.springframework.context.annotation.Configuration;
+
+// types (de)serialized by Jackson outside of what AOT infers from controllers, needed by the native image
+@Configuration
+@RegisterReflectionForBinding({
+        Order.class,
+        OrderRequest.class,
+        Book.class,
+        Price.class,
+        HotIsbn.class,
+        OrderAcceptedMessage.class,
+        OrderDispatchedMessage.class,
+        BookUpdatedMessage.class
+})
+public class NativeHintsConfig {
+}
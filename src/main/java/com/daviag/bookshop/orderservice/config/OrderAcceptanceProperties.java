@@ -0,0 +1,34 @@
+package com.daviag.bookshop.orderservice.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "bs.order-acceptance")
+public record OrderAcceptanceProperties(
+        // when true, POST /orders answers 202 with a PENDING order resolved in background
+        @DefaultValue("false")
+        boolean async,
+        // max number of PENDING orders waiting to be resolved before new ones are refused
+        @DefaultValue("256")
+        int queueCapacity,
+        @DefaultValue("20")
+        int batchSize,
+        @DefaultValue("50ms")
+        Duration batchTimeout,
+        // max number of batches resolved concurrently
+        @DefaultValue("4")
+        int concurrency,
+        // retries of a batch that failed to resolve, the first one after retry-backoff
+        @DefaultValue("3")
+        int retryAttempts,
+        @DefaultValue("200ms")
+        Duration retryBackoff,
+        // age past which a PENDING order is no longer in flight in any replica, and is resolved by the sweep
+        @DefaultValue("5m")
+        Duration staleAfter,
+        @DefaultValue("1m")
+        Duration sweepInterval
+) {
+}
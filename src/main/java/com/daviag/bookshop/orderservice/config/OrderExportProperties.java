@@ -0,0 +1,19 @@
+package com.daviag.bookshop.orderservice.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "bs.order-export")
+public record OrderExportProperties(
+        // rows fetched per round trip by the export cursor
+        @DefaultValue("1000")
+        int fetchSize,
+        // exports get their own pool so that they never take connections from the live orders
+        @DefaultValue("2")
+        int poolMaxSize,
+        @DefaultValue("5s")
+        Duration poolMaxAcquireTime
+) {
+}
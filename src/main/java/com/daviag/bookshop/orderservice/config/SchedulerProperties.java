@@ -0,0 +1,34 @@
+package com.daviag.bookshop.orderservice.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Bounded elastic schedulers of the order stages, see OrderSchedulers.
+ */
+@ConfigurationProperties(prefix = "bs.schedulers")
+public record SchedulerProperties(
+        // continues the orders once the catalog answered
+        @DefaultValue
+        Stage catalog,
+        // continues the orders once the database answered
+        @DefaultValue
+        Stage persistence,
+        // sends to and receives from the broker, whose client blocks
+        @DefaultValue
+        Stage messaging
+) {
+    public record Stage(
+            @DefaultValue("10")
+            int threadCap,
+            // tasks waiting for a thread, past which new tasks are rejected
+            @DefaultValue("1000")
+            int queuedTaskCap,
+            // idle time after which a thread is released
+            @DefaultValue("60s")
+            Duration ttl
+    ) {
+    }
+}
@@ -0,0 +1,17 @@
+package com.daviag.bookshop.orderservice.config;
+
+import com.daviag.bookshop.orderservice.order.web.OrderJsonEncoder;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.codec.EncoderHttpMessageWriter;
+import org.springframework.http.codec.ServerCodecConfigurer;
+import org.springframework.web.reactive.config.WebFluxConfigurer;
+
+@Configuration
+public class WebConfig implements WebFluxConfigurer {
+
+    // registered as a typed writer, so it takes precedence over Jackson for Order only
+    @Override
+    public void configureHttpMessageCodecs(ServerCodecConfigurer configurer) {
+        configurer.customCodecs().register(new EncoderHttpMessageWriter<>(new OrderJsonEncoder()));
+    }
+}
@@ -0,0 +1,45 @@
+package com.daviag.bookshop.orderservice.order.domain;
+
+import com.daviag.bookshop.orderservice.book.BookClient;
+import com.daviag.bookshop.orderservice.config.HotIsbnProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+
+/**
+ * Looks up the most ordered books of the last days before the application is ready,
+ * so that a new replica does not pay a catalog round trip for each of them.
+ * Runners complete before the readiness state switches to ACCEPTING_TRAFFIC.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BookCacheWarmer implements ApplicationRunner {
+
+    private final OrderRepository orderRepository;
+    private final BookClient bookClient;
+    private final HotIsbnProperties properties;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (properties.prewarmCount() <= 0) {
+            return;
+        }
+        var since = Instant.now().minus(properties.prewarmLookback());
+        var warmed = orderRepository.findTopIsbnsSince(since, properties.prewarmCount())
+                .flatMap(bookClient::getBookByIsbn)
+                .count()
+                .timeout(properties.prewarmTimeout())
+                .onErrorResume(e -> {
+                    log.warn("Book cache pre-warming failed: {}", e.getMessage());
+                    return Mono.just(0L);
+                })
+                .block();
+        log.info("Book cache pre-warmed with {} books", warmed);
+    }
+}
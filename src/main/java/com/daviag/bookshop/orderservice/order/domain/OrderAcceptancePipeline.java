@@ -0,0 +1,131 @@
+package com.daviag.bookshop.orderservice.order.domain;
+
+import com.daviag.bookshop.orderservice.config.OrderAcceptanceProperties;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Accepts orders asynchronously: orders are stored as PENDING and resolved in batches in background.
+ * The number of PENDING orders in flight is bounded by {@link OrderAcceptanceProperties#queueCapacity()},
+ * past which new orders are refused instead of piling up in memory.
+ * <p>
+ * A batch that fails to resolve, because the catalog cannot be reached or an accepted event cannot
+ * be sent, is retried with backoff. Orders that still are PENDING after
+ * {@link OrderAcceptanceProperties#staleAfter()}, because their batch failed, they could not be
+ * queued, or the instance that took them stopped, are resolved by a periodic sweep. Younger orders
+ * may be in flight in another replica and are left to it.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OrderAcceptancePipeline {
+
+    private final OrderService orderService;
+    private final OrderAcceptanceProperties properties;
+
+    private final Sinks.Many<Order> pendingOrders = Sinks.many().unicast().onBackpressureBuffer();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Disposable.Composite subscriptions = Disposables.composite();
+
+    public boolean isEnabled() {
+        return properties.async();
+    }
+
+    public Mono<Order> submitOrder(String isbn, Integer quantity) {
+        if (!tryAcquire()) {
+            return Mono.error(new OrderBacklogFullException(properties.queueCapacity()));
+        }
+        var enqueued = new AtomicBoolean();
+        return orderService.createPendingOrder(isbn, quantity)
+                .doOnNext(order -> enqueued.set(enqueue(order)))
+                .doFinally(signal -> {
+                    if (!enqueued.get()) {
+                        inFlight.decrementAndGet();
+                    }
+                });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        subscriptions.add(pendingOrders.asFlux()
+                .bufferTimeout(properties.batchSize(), properties.batchTimeout(), true)
+                .flatMap(batch -> resolve(batch)
+                        .doFinally(signal -> inFlight.addAndGet(-batch.size())), properties.concurrency())
+                .subscribe());
+        // first sweep at startup, for the orders left PENDING by a previous instance
+        subscriptions.add(Flux.interval(Duration.ZERO, properties.sweepInterval())
+                .onBackpressureDrop()
+                .concatMap(tick -> sweepStalePendingOrders(), 1)
+                .subscribe());
+    }
+
+    @PreDestroy
+    public void stop() {
+        subscriptions.dispose();
+    }
+
+    private boolean tryAcquire() {
+        if (inFlight.incrementAndGet() > properties.queueCapacity()) {
+            inFlight.decrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    private boolean enqueue(Order order) {
+        try {
+            pendingOrders.emitNext(order, Sinks.EmitFailureHandler.busyLooping(Duration.ofMillis(100)));
+            return true;
+        } catch (Sinks.EmissionException e) {
+            // the order stays PENDING and is picked up by the sweep once stale
+            log.warn("Could not enqueue pending order with id {}: {}", order.id(), e.getReason());
+            return false;
+        }
+    }
+
+    private Mono<Long> sweepStalePendingOrders() {
+        return orderService.getPendingOrdersCreatedBefore(Instant.now().minus(properties.staleAfter()))
+                .buffer(properties.batchSize())
+                .concatMap(this::resolve)
+                .count()
+                .doOnNext(count -> {
+                    if (count > 0) {
+                        log.info("Resolved {} stale pending orders", count);
+                    }
+                })
+                .onErrorResume(e -> {
+                    log.error("Failed to sweep stale pending orders", e);
+                    return Mono.empty();
+                });
+    }
+
+    // a retry only resolves the orders still PENDING: the update is conditional on the status
+    private Flux<Order> resolve(List<Order> batch) {
+        return orderService.resolvePendingOrders(batch)
+                .retryWhen(Retry.backoff(properties.retryAttempts(), properties.retryBackoff())
+                        .doBeforeRetry(signal -> log.warn("Retrying a batch of {} pending orders: {}",
+                                batch.size(), signal.failure().toString())))
+                .doOnNext(order -> log.info("The order with ID {} is {}.", order.id(), order.status()))
+                .onErrorResume(e -> {
+                    // the orders stay PENDING and are picked up by the sweep once stale
+                    log.error("Failed to resolve a batch of {} pending orders", batch.size(), e);
+                    return Flux.empty();
+                });
+    }
+}
@@ -0,0 +1,8 @@
+package com.daviag.bookshop.orderservice.order.domain;
+
+public class OrderBacklogFullException extends RuntimeException {
+
+    public OrderBacklogFullException(int capacity) {
+        super("The order backlog is full (" + capacity + " pending orders). Please retry later.");
+    }
+}
@@ -0,0 +1,69 @@
+package com.daviag.bookshop.orderservice.order.domain;
+
+import com.daviag.bookshop.orderservice.config.OrderExportProperties;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import jakarta.annotation.PreDestroy;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcConnectionDetails;
+import org.springframework.data.r2dbc.convert.R2dbcConverter;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+import reactor.core.publisher.Flux;
+
+import java.time.Instant;
+
+/**
+ * Streams orders for bulk exports through a server-side cursor, on a small connection pool of
+ * its own: rows are fetched from the database only as fast as the client consumes them.
+ */
+@Component
+public class OrderExportRepository {
+
+    static final String EXPORT_QUERY = "SELECT * FROM orders " +
+            "WHERE created_date >= CAST(:from AS timestamp) AND created_date < CAST(:to AS timestamp) " +
+            "ORDER BY created_date";
+
+    private final ConnectionPool connectionPool;
+    private final DatabaseClient databaseClient;
+    private final TransactionalOperator transactionalOperator;
+    private final R2dbcConverter r2dbcConverter;
+    private final int fetchSize;
+
+    public OrderExportRepository(R2dbcConnectionDetails connectionDetails, R2dbcConverter r2dbcConverter,
+                                 OrderExportProperties properties) {
+        var connectionFactory = ConnectionFactories.get(connectionDetails.getConnectionFactoryOptions());
+        this.connectionPool = new ConnectionPool(ConnectionPoolConfiguration.builder(connectionFactory)
+                .name("order-export")
+                .initialSize(0)
+                .maxSize(properties.poolMaxSize())
+                .maxAcquireTime(properties.poolMaxAcquireTime())
+                .build());
+        this.databaseClient = DatabaseClient.create(connectionPool);
+        // the cursor lives within a read-only transaction, which also gives a consistent snapshot
+        var transactionDefinition = new DefaultTransactionDefinition();
+        transactionDefinition.setReadOnly(true);
+        this.transactionalOperator = TransactionalOperator.create(
+                new R2dbcTransactionManager(connectionPool), transactionDefinition);
+        this.r2dbcConverter = r2dbcConverter;
+        this.fetchSize = properties.fetchSize();
+    }
+
+    public Flux<Order> findAllCreatedBetween(Instant from, Instant to) {
+        return databaseClient.sql(EXPORT_QUERY)
+                .filter((statement, next) -> next.execute(statement.fetchSize(fetchSize)))
+                .bind("from", from)
+                .bind("to", to)
+                .map((row, metadata) -> r2dbcConverter.read(Order.class, row, metadata))
+                .all()
+                .as(transactionalOperator::transactional);
+    }
+
+    @PreDestroy
+    public void close() {
+        connectionPool.dispose();
+    }
+}
@@ -1,9 +1,50 @@
 package com.daviag.bookshop.orderservice.order.domain;
 
+import org.springframework.data.r2dbc.repository.Query;
 import org.springframework.data.repository.reactive.ReactiveCrudRepository;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
+import java.time.Instant;
+import java.util.Collection;
+
+/**
+ * Statuses are compared to their {@link OrderStatus#code()} and prices are bound in cents, as
+ * stored in the orders table.
+ * <p>
+ * The update statements bypass auditing and set last_modified_date themselves. They leave
+ * last_modified_by as it is on purpose: they run on order-dispatched events or in the
+ * acceptance pipeline, with no authenticated user, where auditing would not set it either.
+ */
 public interface OrderRepository extends ReactiveCrudRepository<Order, Long> {
 
     Flux<Order> findAllByCreatedBy(String createdBy);
+
+    // literal status so that the partial index orders_pending_idx is used
+    @Query("SELECT * FROM orders WHERE status = 0 AND created_date < CAST(:before AS timestamp) " +
+            "ORDER BY created_date")
+    Flux<Order> findAllPendingCreatedBefore(Instant before);
+
+    // created_date has no time zone: comparing it to a timestamptz parameter would not use its index
+    @Query("SELECT book_isbn FROM orders WHERE created_date > CAST(:since AS timestamp) AND status <> 2 " +
+            "GROUP BY book_isbn ORDER BY count(*) DESC LIMIT :limit")
+    Flux<String> findTopIsbnsSince(Instant since, int limit);
+
+    /**
+     * Moves the order to the new status in a single statement, only if its current status is one of
+     * the previous ones. Completes empty when the order does not exist or is in another status.
+     */
+    @Query("UPDATE orders SET status = :newStatus, version = version + 1, last_modified_date = :now " +
+            "WHERE id = :id AND status IN (:previousStatuses) RETURNING *")
+    Mono<Order> updateStatus(Long id, short newStatus, Collection<Short> previousStatuses, Instant now);
+
+    /**
+     * Moves the order to the new status along with the name and price, in cents, of the book resolved
+     * from the catalog, as {@link #updateStatus} does.
+     */
+    @Query("UPDATE orders SET status = :newStatus, book_name = :bookName, book_price = :bookPrice, " +
+            "version = version + 1, last_modified_date = :now " +
+            "WHERE id = :id AND status IN (:previousStatuses) RETURNING *")
+    Mono<Order> updateStatusAndBook(Long id, short newStatus, Collection<Short> previousStatuses,
+                                    String bookName, Integer bookPrice, Instant now);
 }
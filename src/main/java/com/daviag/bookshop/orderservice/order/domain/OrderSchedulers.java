@@ -0,0 +1,58 @@
+package com.daviag.bookshop.orderservice.order.domain;
+
+import com.daviag.bookshop.orderservice.config.SchedulerProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Component;
+import reactor.core.observability.micrometer.Micrometer;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Schedulers the order stages continue on, so that what runs after the catalog, the database or
+ * the broker answered never runs on the event loop that delivered the answer. Netty event loops are
+ * shared by all connections: any blocking call there stalls unrelated requests. Each scheduler is
+ * bounded and timed, its meters are orders.scheduler.* tagged with the stage.
+ */
+@Component
+public class OrderSchedulers {
+
+    private static final String METRICS_PREFIX = "orders";
+
+    private final Scheduler catalog;
+    private final Scheduler persistence;
+    private final Scheduler messaging;
+
+    public OrderSchedulers(SchedulerProperties properties, MeterRegistry meterRegistry) {
+        this.catalog = newScheduler("catalog", properties.catalog(), meterRegistry);
+        this.persistence = newScheduler("persistence", properties.persistence(), meterRegistry);
+        this.messaging = newScheduler("messaging", properties.messaging(), meterRegistry);
+    }
+
+    public Scheduler catalog() {
+        return catalog;
+    }
+
+    public Scheduler persistence() {
+        return persistence;
+    }
+
+    public Scheduler messaging() {
+        return messaging;
+    }
+
+    @PreDestroy
+    public void dispose() {
+        catalog.dispose();
+        persistence.dispose();
+        messaging.dispose();
+    }
+
+    private static Scheduler newScheduler(String stage, SchedulerProperties.Stage properties,
+                                          MeterRegistry meterRegistry) {
+        var scheduler = Schedulers.newBoundedElastic(properties.threadCap(), properties.queuedTaskCap(),
+                "orders-" + stage, (int) properties.ttl().toSeconds(), true);
+        return Micrometer.timedScheduler(scheduler, meterRegistry, METRICS_PREFIX, Tags.of("stage", stage));
+    }
+}
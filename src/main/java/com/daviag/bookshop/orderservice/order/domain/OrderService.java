@@ -2,6 +2,7 @@ package com.daviag.bookshop.orderservice.order.domain;
 
 import com.daviag.bookshop.orderservice.book.Book;
 import com.daviag.bookshop.orderservice.book.BookClient;
+import com.daviag.bookshop.orderservice.book.HotIsbnTracker;
 import com.daviag.bookshop.orderservice.order.event.OrderAcceptedMessage;
 import com.daviag.bookshop.orderservice.order.event.OrderDispatchedMessage;
 import lombok.AllArgsConstructor;
@@ -9,9 +10,13 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.cloud.stream.function.StreamBridge;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.reactive.TransactionalOperator;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.Instant;
+import java.util.List;
+
 @Slf4j
 @Service
 @AllArgsConstructor
@@ -19,6 +24,9 @@ public class OrderService {
     private final OrderRepository orderRepository;
     private final BookClient bookClient;
     private final StreamBridge streamBridge;
+    private final HotIsbnTracker hotIsbnTracker;
+    private final OrderSchedulers schedulers;
+    private final TransactionalOperator transactionalOperator;
 
     public Flux<Order> getAllOrders(String userId) {
         return orderRepository.findAllByCreatedBy(userId);
@@ -26,34 +34,108 @@ public class OrderService {
 
     @Transactional
     public Mono<Order> submitOrder(String isbn, Integer quantity) {
+        hotIsbnTracker.record(isbn);
         return bookClient.getBookByIsbn(isbn)
+                .publishOn(schedulers.catalog())
                 .map(book -> buildAcceptedOrder(book, quantity))
                 .defaultIfEmpty(buildRejectedOrder(isbn, quantity))
-                .flatMap(orderRepository::save)
-                .doOnNext(this::publishOrderAcceptedEvent);
+                .flatMap(order -> orderRepository.save(order)
+                        .publishOn(schedulers.persistence()))
+                .flatMap(this::publishOrderAcceptedEvent);
+    }
+
+    public Mono<Order> createPendingOrder(String isbn, Integer quantity) {
+        hotIsbnTracker.record(isbn);
+        return orderRepository.save(buildPendingOrder(isbn, quantity))
+                .publishOn(schedulers.persistence());
+    }
+
+    public Flux<Order> getPendingOrdersCreatedBefore(Instant before) {
+        return orderRepository.findAllPendingCreatedBefore(before);
+    }
+
+    /**
+     * Resolves a batch of PENDING orders, looking up every distinct ISBN of the batch only once.
+     * Orders already resolved in the meantime are skipped. Errors with
+     * {@link com.daviag.bookshop.orderservice.book.CatalogUnavailableException} when the catalog
+     * cannot be reached, leaving the orders PENDING.
+     */
+    public Flux<Order> resolvePendingOrders(List<Order> pendingOrders) {
+        return Flux.fromIterable(pendingOrders)
+                .map(Order::bookIsbn)
+                .distinct()
+                .flatMap(bookClient::findBookByIsbn)
+                .collectMap(Book::isbn)
+                .publishOn(schedulers.catalog())
+                .flatMapMany(books -> Flux.fromIterable(pendingOrders)
+                        .flatMap(order -> resolvePendingOrder(order, books.get(order.bookIsbn()))));
     }
 
     public Flux<Order> consumeOrderDispatchedEvent (Flux<OrderDispatchedMessage> flux) {
         return flux
-                .flatMap(message -> orderRepository.findById(message.orderId()))
-                .map(this::buildDispatchedOrder)
-                .flatMap(orderRepository::save);
+                .flatMap(message -> transitionOrder(message.orderId(), OrderStatus.DISPATCHED)
+                        .publishOn(schedulers.persistence())
+                        .onErrorResume(DuplicateOrderTransitionException.class, e -> {
+                            log.info(e.getMessage());
+                            return Mono.empty();
+                        })
+                        .onErrorResume(e -> e instanceof IllegalOrderTransitionException
+                                || e instanceof OrderNotFoundException, e -> {
+                            log.warn("Ignoring order dispatched event: {}", e.getMessage());
+                            return Mono.empty();
+                        })
+                        // a database failure or a saturated scheduler must not end the consumer
+                        .onErrorResume(e -> {
+                            log.error("Failed to process order dispatched event for order {}", message.orderId(), e);
+                            return Mono.empty();
+                        }));
+    }
+
+    /**
+     * Moves the order to the new status in a single round trip, provided that the order state
+     * machine allows it from its current status. On failure, errors with
+     * {@link DuplicateOrderTransitionException} if the order already is in the new status,
+     * {@link IllegalOrderTransitionException} if it cannot move to it, or {@link OrderNotFoundException}.
+     * Statuses that record the book are only reached by resolving the PENDING order.
+     */
+    public Mono<Order> transitionOrder(Long orderId, OrderStatus newStatus) {
+        if (newStatus.recordsBook()) {
+            return Mono.error(new IllegalArgumentException(
+                    "Orders move to " + newStatus + " only when resolved with their book"));
+        }
+        var previousStatuses = newStatus.previousStatuses();
+        var updatedOrder = previousStatuses.isEmpty()
+                ? Mono.<Order>empty()
+                : orderRepository.updateStatus(orderId, newStatus.code(),
+                        OrderStatus.codes(previousStatuses), Instant.now());
+        // the order is read again only to tell why the update did not happen
+        return updatedOrder.switchIfEmpty(Mono.defer(() -> orderRepository.findById(orderId)
+                .switchIfEmpty(Mono.error(() -> new OrderNotFoundException(orderId)))
+                .flatMap(order -> Mono.<Order>error(order.status() == newStatus
+                        ? new DuplicateOrderTransitionException(orderId, newStatus)
+                        : new IllegalOrderTransitionException(orderId, order.status(), newStatus)))));
+    }
+
+    // the update is rolled back if the accepted event cannot be sent, so that a retry sends it
+    private Mono<Order> resolvePendingOrder(Order pendingOrder, Book book) {
+        var resolvedOrder = book == null
+                ? resolveOrder(pendingOrder.id(), OrderStatus.REJECTED, null, null)
+                : resolveOrder(pendingOrder.id(), OrderStatus.ACCEPTED,
+                        book.title() + " - " + book.author(), Math.toIntExact(book.price().cents()));
+        return transactionalOperator.transactional(resolvedOrder
+                        .publishOn(schedulers.persistence())
+                        .flatMap(this::publishOrderAcceptedEvent))
+                .switchIfEmpty(Mono.fromRunnable(() ->
+                        log.info("The order with ID {} is already resolved.", pendingOrder.id())));
+    }
+
+    private Mono<Order> resolveOrder(Long orderId, OrderStatus newStatus, String bookName, Integer bookPrice) {
+        return orderRepository.updateStatusAndBook(orderId, newStatus.code(),
+                OrderStatus.codes(newStatus.previousStatuses()), bookName, bookPrice, Instant.now());
     }
 
-    private Order buildDispatchedOrder(Order existingOrder) {
-        return new Order(
-                existingOrder.id(),
-                existingOrder.bookIsbn(),
-                existingOrder.bookName(),
-                existingOrder.bookPrice(),
-                existingOrder.quantity(),
-                OrderStatus.DISPATCHED,
-                existingOrder.createdDate(),
-                existingOrder.lastModifiedDate(),
-                existingOrder.createdBy(),
-                existingOrder.lastModifiedBy(),
-                existingOrder.version()
-        );
+    public static Order buildPendingOrder(String isbn, Integer quantity) {
+        return Order.of(isbn, null, null, quantity, OrderStatus.PENDING);
     }
 
     public static Order buildAcceptedOrder(Book book, Integer quantity) {
@@ -65,13 +147,18 @@ public class OrderService {
         return Order.of(isbn, null, null, quantity, OrderStatus.REJECTED);
     }
 
-    private void publishOrderAcceptedEvent(Order order) {
+    // the send blocks until the broker commits it (transacted producer): never on an event loop
+    private Mono<Order> publishOrderAcceptedEvent(Order order) {
         if (!order.status().equals(OrderStatus.ACCEPTED)) {
-            return;
+            return Mono.just(order);
         }
-        var orderAcceptedMessage = new OrderAcceptedMessage(order.id());
-        log.info("Sending order accepted event with id: {}", order.id());
-        var result = streamBridge.send("acceptOrder-out-0", orderAcceptedMessage);
-        log.info("Result of sendind data for order with id {}: {}", order.id(), result);
+        return Mono.fromRunnable(() -> {
+                    var orderAcceptedMessage = new OrderAcceptedMessage(order.id());
+                    log.info("Sending order accepted event with id: {}", order.id());
+                    var result = streamBridge.send("acceptOrder-out-0", orderAcceptedMessage);
+                    log.info("Result of sendind data for order with id {}: {}", order.id(), result);
+                })
+                .subscribeOn(schedulers.messaging())
+                .thenReturn(order);
     }
 }
@@ -1,7 +0,0 @@
-package com.daviag.bookshop.orderservice.order.domain;
-
-public enum OrderStatus {
-    ACCEPTED,
-    REJECTED,
-    DISPATCHED
-}
@@ -1,11 +1,14 @@
 package com.daviag.bookshop.orderservice.order.event;
 
+import com.daviag.bookshop.orderservice.order.domain.OrderSchedulers;
 import com.daviag.bookshop.orderservice.order.domain.OrderService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import reactor.core.publisher.Flux;
+import reactor.util.retry.Retry;
 
+import java.time.Duration;
 import java.util.function.Consumer;
 
 @Slf4j
@@ -13,10 +16,16 @@ import java.util.function.Consumer;
 public class OrderFunctions {
 
     @Bean
-    public Consumer<Flux<OrderDispatchedMessage>> dispatchOrder(OrderService orderService) {
+    public Consumer<Flux<OrderDispatchedMessage>> dispatchOrder(OrderService orderService,
+                                                                OrderSchedulers schedulers) {
+        // the broker listener thread hands the messages over instead of running their processing
+        // errors are handled per message: resubscribing only covers the handover being rejected
         return flux -> orderService
-                .consumeOrderDispatchedEvent(flux)
+                .consumeOrderDispatchedEvent(flux.publishOn(schedulers.messaging()))
                 .doOnNext(order -> log.info("The order with ID {} is dispatched.", order.id()))
+                .retryWhen(Retry.fixedDelay(Long.MAX_VALUE, Duration.ofSeconds(1))
+                        .doBeforeRetry(signal -> log.error("Resubscribing to order dispatched events",
+                                signal.failure())))
                 .subscribe();
     }
 }
@@ -0,0 +1,8 @@
+package com.daviag.bookshop.orderservice.order.web;
+
+public class InvalidExportRequestException extends RuntimeException {
+
+    public InvalidExportRequestException(String message) {
+        super(message);
+    }
+}
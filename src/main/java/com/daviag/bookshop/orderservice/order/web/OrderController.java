@@ -1,16 +1,24 @@
 package com.daviag.bookshop.orderservice.order.web;
 
 import com.daviag.bookshop.orderservice.order.domain.Order;
+import com.daviag.bookshop.orderservice.order.domain.OrderAcceptancePipeline;
+import com.daviag.bookshop.orderservice.order.domain.OrderBacklogFullException;
 import com.daviag.bookshop.orderservice.order.domain.OrderService;
 import jakarta.validation.Valid;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.web.bind.annotation.*;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.concurrent.RejectedExecutionException;
+
 @RestController
 @RequestMapping("/orders")
 @AllArgsConstructor
@@ -18,6 +26,7 @@ import reactor.core.publisher.Mono;
 public class OrderController {
 
     private final OrderService orderService;
+    private final OrderAcceptancePipeline orderAcceptancePipeline;
 
     @GetMapping
     public Flux<Order> getAllOrders(@AuthenticationPrincipal Jwt jwt) {
@@ -26,8 +35,31 @@ public class OrderController {
     }
 
     @PostMapping
-    public Mono<Order> submitOrder(@RequestBody @Valid OrderRequest orderRequest) {
+    public Mono<ResponseEntity<Order>> submitOrder(@RequestBody @Valid OrderRequest orderRequest) {
         log.info("Order for {} copies of the book with ISBN {}", orderRequest.quantity(), orderRequest.isbn());
-        return orderService.submitOrder(orderRequest.isbn(), orderRequest.quantity());
+        if (orderAcceptancePipeline.isEnabled()) {
+            return orderAcceptancePipeline.submitOrder(orderRequest.isbn(), orderRequest.quantity())
+                    .map(order -> ResponseEntity.accepted().body(order));
+        }
+        return orderService.submitOrder(orderRequest.isbn(), orderRequest.quantity())
+                .map(ResponseEntity::ok);
+    }
+
+    @ExceptionHandler(OrderBacklogFullException.class)
+    public ResponseEntity<ProblemDetail> handleOrderBacklogFull(OrderBacklogFullException e) {
+        log.warn(e.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(ProblemDetail.forStatusAndDetail(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage()));
+    }
+
+    // the queue of a bounded order scheduler is full, see OrderSchedulers
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<ProblemDetail> handleSchedulerSaturated(RejectedExecutionException e) {
+        log.warn("Order stage saturated: {}", e.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(ProblemDetail.forStatusAndDetail(HttpStatus.SERVICE_UNAVAILABLE,
+                        "Too many orders are being processed. Please retry later."));
     }
 }
@@ -0,0 +1,124 @@
+package com.daviag.bookshop.orderservice.order.web;
+
+import com.daviag.bookshop.orderservice.order.domain.OrderExportRepository;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Bulk export of the orders of all users, for reporting. The response is written as rows come
+ * from the database cursor, so memory usage does not depend on the number of exported orders.
+ */
+@RestController
+@RequestMapping("/orders/export")
+@AllArgsConstructor
+@Slf4j
+public class OrderExportController {
+
+    private static final int ORDERS_PER_CHUNK = 500;
+    private static final MediaType GZIP = new MediaType("application", "gzip");
+
+    private final OrderExportRepository orderExportRepository;
+
+    @GetMapping
+    public Mono<Void> exportOrders(@RequestParam Instant from,
+                                   @RequestParam Instant to,
+                                   @RequestParam(defaultValue = "ndjson") String format,
+                                   @RequestParam(defaultValue = "false") boolean gzip,
+                                   ServerHttpResponse response) {
+        log.info("Exporting orders created from {} to {} as {}", from, to, format);
+        if (from.isAfter(to)) {
+            throw new InvalidExportRequestException("The export starts at " + from + ", after its end " + to + ".");
+        }
+        var exportFormat = OrderExportFormat.from(format);
+        var headers = response.getHeaders();
+        // a gzip file to download, not a compressed transfer that clients would transparently inflate
+        headers.setContentType(gzip ? GZIP : exportFormat.mediaType());
+        headers.setContentDisposition(ContentDisposition.attachment()
+                .filename("orders." + exportFormat.fileExtension() + (gzip ? ".gz" : ""))
+                .build());
+
+        var bufferFactory = response.bufferFactory();
+        var header = exportFormat.header();
+        var content = orderExportRepository.findAllCreatedBetween(from, to)
+                .buffer(ORDERS_PER_CHUNK)
+                .map(orders -> exportFormat.encode(orders, bufferFactory));
+        if (header.length > 0) {
+            content = content.startWith(Mono.fromSupplier(() -> bufferFactory.wrap(header)));
+        }
+        return response.writeWith(gzip ? gzip(content, bufferFactory) : content);
+    }
+
+    @ExceptionHandler(InvalidExportRequestException.class)
+    public ResponseEntity<ProblemDetail> handleInvalidExportRequest(InvalidExportRequestException e) {
+        return ResponseEntity.badRequest()
+                .body(ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, e.getMessage()));
+    }
+
+    /**
+     * Compresses the chunks as a single gzip stream, each chunk being flushed as soon as it is
+     * compressed so that the client receives data while the export goes on.
+     */
+    private static Flux<DataBuffer> gzip(Flux<DataBuffer> chunks, DataBufferFactory bufferFactory) {
+        return Flux.defer(() -> {
+            var compressed = new ByteArrayOutputStream();
+            var gzipStream = newGzipStream(compressed);
+            return chunks
+                    .map(chunk -> {
+                        try (var input = chunk.asInputStream(true)) {
+                            input.transferTo(gzipStream);
+                            gzipStream.flush();
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                        return drain(compressed);
+                    })
+                    .concatWith(Mono.fromCallable(() -> {
+                        gzipStream.finish();
+                        return drain(compressed);
+                    }))
+                    .filter(bytes -> bytes.length > 0)
+                    .map(bufferFactory::wrap)
+                    // releases the native zlib memory right away when the client cancels or the export fails
+                    .doFinally(signal -> close(gzipStream));
+        });
+    }
+
+    private static void close(GZIPOutputStream gzipStream) {
+        try {
+            gzipStream.close();
+        } catch (IOException e) {
+            // nothing left to write to: the stream only wraps an in-memory buffer
+        }
+    }
+
+    private static GZIPOutputStream newGzipStream(ByteArrayOutputStream compressed) {
+        try {
+            return new GZIPOutputStream(compressed, true);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static byte[] drain(ByteArrayOutputStream compressed) {
+        var bytes = compressed.toByteArray();
+        compressed.reset();
+        return bytes;
+    }
+}
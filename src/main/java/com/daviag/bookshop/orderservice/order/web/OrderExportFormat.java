@@ -0,0 +1,100 @@
+package com.daviag.bookshop.orderservice.order.web;
+
+import com.daviag.bookshop.orderservice.order.domain.Order;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.MediaType;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+
+public enum OrderExportFormat {
+    CSV(new MediaType("text", "csv", StandardCharsets.UTF_8), "csv"),
+    NDJSON(MediaType.APPLICATION_NDJSON, "ndjson");
+
+    private static final String CSV_HEADER = "id,book_isbn,book_name,book_price,quantity,status," +
+            "created_date,last_modified_date,created_by,last_modified_by,version\n";
+
+    private final MediaType mediaType;
+    private final String fileExtension;
+
+    OrderExportFormat(MediaType mediaType, String fileExtension) {
+        this.mediaType = mediaType;
+        this.fileExtension = fileExtension;
+    }
+
+    public static OrderExportFormat from(String format) {
+        for (var exportFormat : values()) {
+            if (exportFormat.fileExtension.equals(format.toLowerCase(Locale.ROOT))) {
+                return exportFormat;
+            }
+        }
+        throw new InvalidExportRequestException("Unknown export format " + format + ", expected csv or ndjson.");
+    }
+
+    public MediaType mediaType() {
+        return mediaType;
+    }
+
+    public String fileExtension() {
+        return fileExtension;
+    }
+
+    public byte[] header() {
+        return this == CSV ? CSV_HEADER.getBytes(StandardCharsets.UTF_8) : new byte[0];
+    }
+
+    /**
+     * Encodes a chunk of orders, one per line. NDJSON lines are written by {@link OrderJsonEncoder},
+     * as the orders returned by the other endpoints.
+     */
+    public DataBuffer encode(List<Order> orders, DataBufferFactory bufferFactory) {
+        var buffer = bufferFactory.allocateBuffer(orders.size() * OrderJsonEncoder.INITIAL_ORDER_SIZE);
+        try {
+            if (this == CSV) {
+                var content = new StringBuilder(orders.size() * 160);
+                for (var order : orders) {
+                    appendCsv(content, order);
+                    content.append('\n');
+                }
+                buffer.write(content, StandardCharsets.UTF_8);
+            } else {
+                for (var order : orders) {
+                    OrderJsonEncoder.writeOrder(buffer, order);
+                    buffer.write((byte) '\n');
+                }
+            }
+            return buffer;
+        } catch (RuntimeException e) {
+            DataBufferUtils.release(buffer);
+            throw e;
+        }
+    }
+
+    private static void appendCsv(StringBuilder content, Order order) {
+        content.append(order.id()).append(',')
+                .append(csvValue(order.bookIsbn())).append(',')
+                .append(csvValue(order.bookName())).append(',')
+                .append(Objects.toString(order.bookPrice(), "")).append(',')
+                .append(order.quantity()).append(',')
+                .append(order.status()).append(',')
+                .append(Objects.toString(order.createdDate(), "")).append(',')
+                .append(Objects.toString(order.lastModifiedDate(), "")).append(',')
+                .append(csvValue(order.createdBy())).append(',')
+                .append(csvValue(order.lastModifiedBy())).append(',')
+                .append(order.version());
+    }
+
+    private static String csvValue(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
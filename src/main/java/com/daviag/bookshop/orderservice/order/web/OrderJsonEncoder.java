@@ -0,0 +1,225 @@
+package com.daviag.bookshop.orderservice.order.web;
+
+import com.daviag.bookshop.orderservice.book.Price;
+import com.daviag.bookshop.orderservice.order.domain.Order;
+import org.reactivestreams.Publisher;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.AbstractEncoder;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.HttpMessageEncoder;
+import org.springframework.lang.Nullable;
+import org.springframework.util.MimeType;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Writes {@link Order} as JSON or NDJSON straight into the response buffers, with precomputed
+ * field names, instead of going through reflective Jackson serialization. The output is the same,
+ * byte for byte, as the one of the application ObjectMapper.
+ */
+public class OrderJsonEncoder extends AbstractEncoder<Order> implements HttpMessageEncoder<Order> {
+
+    private static final byte[] ID = ascii("{\"id\":");
+    private static final byte[] BOOK_ISBN = ascii(",\"bookIsbn\":");
+    private static final byte[] BOOK_NAME = ascii(",\"bookName\":");
+    private static final byte[] BOOK_PRICE = ascii(",\"bookPrice\":");
+    private static final byte[] QUANTITY = ascii(",\"quantity\":");
+    private static final byte[] STATUS = ascii(",\"status\":");
+    private static final byte[] CREATED_DATE = ascii(",\"createdDate\":");
+    private static final byte[] LAST_MODIFIED_DATE = ascii(",\"lastModifiedDate\":");
+    private static final byte[] CREATED_BY = ascii(",\"createdBy\":");
+    private static final byte[] LAST_MODIFIED_BY = ascii(",\"lastModifiedBy\":");
+    private static final byte[] VERSION = ascii(",\"version\":");
+    private static final byte[] NULL = ascii("null");
+    private static final byte[] NONE = new byte[0];
+    private static final byte[] LINE_FEED = ascii("\n");
+    private static final byte[] ARRAY_START = ascii("[");
+    private static final byte[] COMMA = ascii(",");
+    private static final byte[] HEX_DIGITS = ascii("0123456789ABCDEF");
+    static final int INITIAL_ORDER_SIZE = 320;
+
+    public OrderJsonEncoder() {
+        super(MediaType.APPLICATION_JSON, MediaType.APPLICATION_NDJSON);
+    }
+
+    @Override
+    public boolean canEncode(ResolvableType elementType, @Nullable MimeType mimeType) {
+        return Order.class.isAssignableFrom(elementType.toClass()) && super.canEncode(elementType, mimeType);
+    }
+
+    @Override
+    public List<MediaType> getStreamingMediaTypes() {
+        return List.of(MediaType.APPLICATION_NDJSON);
+    }
+
+    @Override
+    public Flux<DataBuffer> encode(Publisher<? extends Order> inputStream, DataBufferFactory bufferFactory,
+                                   ResolvableType elementType, @Nullable MimeType mimeType,
+                                   @Nullable Map<String, Object> hints) {
+        if (inputStream instanceof Mono) {
+            return Mono.from(inputStream)
+                    .map(order -> encodeValue(order, bufferFactory, elementType, mimeType, hints))
+                    .flux();
+        }
+        if (MediaType.APPLICATION_NDJSON.isCompatibleWith(mimeType)) {
+            return Flux.from(inputStream).map(order -> encodeOrder(bufferFactory, order, NONE, LINE_FEED));
+        }
+        // JSON array, streamed element by element
+        return Flux.defer(() -> {
+            var first = new AtomicBoolean(true);
+            return Flux.from(inputStream)
+                    .map(order -> encodeOrder(bufferFactory, order,
+                            first.getAndSet(false) ? ARRAY_START : COMMA, NONE))
+                    .concatWith(Mono.fromSupplier(() -> bufferFactory.allocateBuffer(2)
+                            .write(first.get() ? ascii("[]") : ascii("]"))));
+        });
+    }
+
+    @Override
+    public DataBuffer encodeValue(Order order, DataBufferFactory bufferFactory, ResolvableType valueType,
+                                  @Nullable MimeType mimeType, @Nullable Map<String, Object> hints) {
+        return encodeOrder(bufferFactory, order, NONE, NONE);
+    }
+
+    // the buffer is released if writing fails, as it never reaches the response that would release it
+    private static DataBuffer encodeOrder(DataBufferFactory bufferFactory, Order order, byte[] prefix, byte[] suffix) {
+        var buffer = bufferFactory.allocateBuffer(INITIAL_ORDER_SIZE);
+        try {
+            buffer.write(prefix);
+            writeOrder(buffer, order);
+            return buffer.write(suffix);
+        } catch (RuntimeException e) {
+            DataBufferUtils.release(buffer);
+            throw e;
+        }
+    }
+
+    static void writeOrder(DataBuffer buffer, Order order) {
+        buffer.write(ID);
+        writeNumber(buffer, order.id());
+        buffer.write(BOOK_ISBN);
+        writeString(buffer, order.bookIsbn());
+        buffer.write(BOOK_NAME);
+        writeString(buffer, order.bookName());
+        buffer.write(BOOK_PRICE);
+        writePrice(buffer, order.bookPrice());
+        buffer.write(QUANTITY);
+        writeNumber(buffer, order.quantity());
+        buffer.write(STATUS);
+        writeString(buffer, order.status() != null ? order.status().name() : null);
+        buffer.write(CREATED_DATE);
+        writeString(buffer, order.createdDate() != null ? order.createdDate().toString() : null);
+        buffer.write(LAST_MODIFIED_DATE);
+        writeString(buffer, order.lastModifiedDate() != null ? order.lastModifiedDate().toString() : null);
+        buffer.write(CREATED_BY);
+        writeString(buffer, order.createdBy());
+        buffer.write(LAST_MODIFIED_BY);
+        writeString(buffer, order.lastModifiedBy());
+        buffer.write(VERSION);
+        writeLong(buffer, order.version());
+        buffer.write((byte) '}');
+    }
+
+    private static void writeNumber(DataBuffer buffer, @Nullable Number value) {
+        if (value == null) {
+            buffer.write(NULL);
+        } else {
+            writeLong(buffer, value.longValue());
+        }
+    }
+
+    // same representation as Jackson for the BigDecimal amount: units, a dot and two digits of cents
+    private static void writePrice(DataBuffer buffer, @Nullable Price price) {
+        if (price == null) {
+            buffer.write(NULL);
+            return;
+        }
+        long cents = price.cents();
+        if (cents < 0) {
+            buffer.write((byte) '-');
+            cents = -cents;
+        }
+        writeLong(buffer, cents / 100);
+        buffer.write((byte) '.');
+        buffer.write((byte) ('0' + cents % 100 / 10));
+        buffer.write((byte) ('0' + cents % 10));
+    }
+
+    private static void writeLong(DataBuffer buffer, long value) {
+        if (value == Long.MIN_VALUE) {
+            buffer.write(Long.toString(value), StandardCharsets.US_ASCII);
+            return;
+        }
+        if (value < 0) {
+            buffer.write((byte) '-');
+            value = -value;
+        }
+        long divisor = 1;
+        while (value / divisor >= 10) {
+            divisor *= 10;
+        }
+        while (divisor > 0) {
+            buffer.write((byte) ('0' + value / divisor));
+            value %= divisor;
+            divisor /= 10;
+        }
+    }
+
+    // escapes like Jackson does by default: quotes, backslashes and control characters only
+    private static void writeString(DataBuffer buffer, @Nullable String value) {
+        if (value == null) {
+            buffer.write(NULL);
+            return;
+        }
+        buffer.write((byte) '"');
+        int start = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c >= 0x20 && c != '"' && c != '\\') {
+                continue;
+            }
+            if (i > start) {
+                buffer.write(value.substring(start, i), StandardCharsets.UTF_8);
+            }
+            writeEscaped(buffer, c);
+            start = i + 1;
+        }
+        if (start == 0) {
+            buffer.write(value, StandardCharsets.UTF_8);
+        } else if (start < value.length()) {
+            buffer.write(value.substring(start), StandardCharsets.UTF_8);
+        }
+        buffer.write((byte) '"');
+    }
+
+    private static void writeEscaped(DataBuffer buffer, char c) {
+        buffer.write((byte) '\\');
+        switch (c) {
+            case '"', '\\' -> buffer.write((byte) c);
+            case '\b' -> buffer.write((byte) 'b');
+            case '\f' -> buffer.write((byte) 'f');
+            case '\n' -> buffer.write((byte) 'n');
+            case '\r' -> buffer.write((byte) 'r');
+            case '\t' -> buffer.write((byte) 't');
+            default -> {
+                buffer.write((byte) 'u');
+                buffer.write((byte) '0');
+                buffer.write((byte) '0');
+                buffer.write(HEX_DIGITS[c >> 4]);
+                buffer.write(HEX_DIGITS[c & 0xF]);
+            }
+        }
+    }
+
+    private static byte[] ascii(String value) {
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+}
@@ -1,7 +1,10 @@
 package com.daviag.bookshop.orderservice;
 
 import com.daviag.bookshop.orderservice.book.Book;
+import com.daviag.bookshop.orderservice.book.BookCache;
 import com.daviag.bookshop.orderservice.book.BookClient;
+import com.daviag.bookshop.orderservice.book.BookUpdatedMessage;
+import com.daviag.bookshop.orderservice.book.Price;
 import com.daviag.bookshop.orderservice.order.domain.Order;
 import com.daviag.bookshop.orderservice.order.domain.OrderStatus;
 import com.daviag.bookshop.orderservice.order.web.OrderRequest;
@@ -14,11 +17,13 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cloud.stream.binder.test.InputDestination;
 import org.springframework.cloud.stream.binder.test.OutputDestination;
 import org.springframework.cloud.stream.binder.test.TestChannelBinderConfiguration;
 import org.springframework.context.annotation.Import;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.messaging.support.MessageBuilder;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
 import org.springframework.test.web.reactive.server.WebTestClient;
@@ -65,9 +70,15 @@ class OrderServiceApplicationTests {
 	@Autowired
 	private WebTestClient webTestClient;
 
+	@Autowired
+	private InputDestination input;
+
 	@Autowired
 	private OutputDestination output;
 
+	@Autowired
+	private BookCache bookCache;
+
 	@Autowired
 	private ObjectMapper objectMapper;
 
@@ -81,7 +92,7 @@ class OrderServiceApplicationTests {
 	@Test
 	void whenGetOrdersThenReturn() {
 		String bookIsbn = "1234567893";
-		Book book = new Book(bookIsbn, "Title", "Author", 9.90);
+		Book book = new Book(bookIsbn, "Title", "Author", Price.of("9.90"));
 		given(bookClient.getBookByIsbn(bookIsbn)).willReturn(Mono.just(book));
 		OrderRequest orderRequest = new OrderRequest(bookIsbn, 1);
 		Order expectedOrder = webTestClient.post().uri("/orders")
@@ -97,7 +108,7 @@ class OrderServiceApplicationTests {
 	@Test
 	void whenPostRequestAndBookExistsThenOrderAccepted() {
 		String bookIsbn = "1234567899";
-		Book book = new Book(bookIsbn, "Title", "Author", 9.90);
+		Book book = new Book(bookIsbn, "Title", "Author", Price.of("9.90"));
 		given(bookClient.getBookByIsbn(bookIsbn)).willReturn(Mono.just(book));
 		OrderRequest orderRequest = new OrderRequest(bookIsbn, 3);
 
@@ -137,6 +148,29 @@ class OrderServiceApplicationTests {
 		assertThat(createdOrder.status()).isEqualTo(OrderStatus.REJECTED);
 	}
 
+	@Test
+	void whenBookUpdatedThenCachedBookRefreshed() throws Exception {
+		String bookIsbn = "1234567895";
+		bookCache.putFetched(new Book(bookIsbn, "Title", "Author", Price.of("9.90")), bookCache.beginFetch());
+
+		input.send(MessageBuilder.withPayload(objectMapper.writeValueAsBytes(
+				new BookUpdatedMessage(bookIsbn, "Title", "Author", Price.of("12.90"), false))).build(), "catalog-book-updated");
+
+		assertThat(bookCache.get(bookIsbn)).hasValueSatisfying(book ->
+				assertThat(book.price()).isEqualTo(Price.of("12.90")));
+	}
+
+	@Test
+	void whenBookDeletedThenCachedBookEvicted() throws Exception {
+		String bookIsbn = "1234567896";
+		bookCache.putFetched(new Book(bookIsbn, "Title", "Author", Price.of("9.90")), bookCache.beginFetch());
+
+		input.send(MessageBuilder.withPayload(objectMapper.writeValueAsBytes(
+				new BookUpdatedMessage(bookIsbn, null, null, null, true))).build(), "catalog-book-updated");
+
+		assertThat(bookCache.get(bookIsbn)).isEmpty();
+	}
+
 	@Test
 	void whenGetRequestUnauthenticatedThen401() {
 		webTestClient.get().uri("/orders")
@@ -155,6 +189,31 @@ class OrderServiceApplicationTests {
 				.expectStatus().isUnauthorized();
 	}
 
+	@Test
+	void whenHotIsbnsRequestedByCustomerThen403() {
+		webTestClient.get().uri("/actuator/hotisbns")
+				.headers(headers -> headers.setBearerAuth(bjornTokens.accessToken()))
+				.exchange()
+				.expectStatus().isForbidden();
+	}
+
+	@Test
+	void whenHotIsbnsRequestedByEmployeeThen200() {
+		webTestClient.get().uri("/actuator/hotisbns")
+				.headers(headers -> headers.setBearerAuth(isabelleTokens.accessToken()))
+				.exchange()
+				.expectStatus().isOk();
+	}
+
+	@Test
+	void whenHotIsbnsRequestedWithNegativeTopThenEmpty() {
+		webTestClient.get().uri("/actuator/hotisbns?top=-1")
+				.headers(headers -> headers.setBearerAuth(isabelleTokens.accessToken()))
+				.exchange()
+				.expectStatus().isOk()
+				.expectBody().json("[]");
+	}
+
 	private static KeycloakToken authenticateWith(String username, String password, WebClient webClient) {
 		return webClient
 				.post()
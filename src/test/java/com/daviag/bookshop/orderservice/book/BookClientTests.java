@@ -1,7 +1,10 @@
 package com.daviag.bookshop.orderservice.book;
 
+import com.daviag.bookshop.orderservice.config.BookCacheProperties;
+import okhttp3.mockwebserver.Dispatcher;
 import okhttp3.mockwebserver.MockResponse;
 import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
 import org.junit.jupiter.api.*;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
@@ -10,11 +13,15 @@ import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
 import java.io.IOException;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
 
 @TestMethodOrder(MethodOrderer.Random.class)
 public class BookClientTests {
 
     private MockWebServer mockWebServer;
+    private BookCache bookCache;
     private BookClient bookClient;
 
     @BeforeEach
@@ -24,7 +31,8 @@ public class BookClientTests {
         var webClient = WebClient.builder()
                 .baseUrl(mockWebServer.url("/").uri().toString())
                 .build();
-        bookClient = new BookClient(webClient);
+        bookCache = new BookCache(new BookCacheProperties(Duration.ofMinutes(1), 100, true));
+        bookClient = new BookClient(webClient, bookCache);
     }
 
     @AfterEach
@@ -70,4 +78,102 @@ public class BookClientTests {
                 .expectNextCount(0)
                 .verifyComplete();
     }
+
+    @Test
+    void whenCatalogUnavailableThenFindErrorsAndGetReturnsEmpty() {
+        var bookIsbn = "1234567895";
+
+        // first request and its 3 retries, for each lookup
+        for (int i = 0; i < 8; i++) {
+            mockWebServer.enqueue(new MockResponse().setResponseCode(503));
+        }
+
+        StepVerifier.create(bookClient.findBookByIsbn(bookIsbn))
+                .expectError(CatalogUnavailableException.class)
+                .verify();
+        StepVerifier.create(bookClient.getBookByIsbn(bookIsbn))
+                .expectNextCount(0)
+                .verifyComplete();
+    }
+
+    @Test
+    void whenBookFetchedTwiceThenCatalogCalledOnce() {
+        var bookIsbn = "1234567892";
+
+        var mockResponse = new MockResponse()
+                .addHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .setBody("""
+                        {
+                            "isbn": "%s",
+                            "title": "Title",
+                            "author": "Author",
+                            "price": 9.90
+                        }
+                        """.formatted(bookIsbn));
+        mockWebServer.enqueue(mockResponse);
+
+        StepVerifier.create(bookClient.getBookByIsbn(bookIsbn).then(bookClient.getBookByIsbn(bookIsbn)))
+                .expectNextMatches(b -> b.isbn().equals(bookIsbn))
+                .verifyComplete();
+
+        assertThat(mockWebServer.getRequestCount()).isEqualTo(1);
+    }
+
+    @Test
+    void whenCacheDisabledThenCatalogCalledEveryTime() {
+        var bookIsbn = "1234567894";
+        var webClient = WebClient.builder()
+                .baseUrl(mockWebServer.url("/").uri().toString())
+                .build();
+        var uncachedBookClient = new BookClient(webClient,
+                new BookCache(new BookCacheProperties(Duration.ofMinutes(1), 100, false)));
+
+        for (int i = 0; i < 2; i++) {
+            mockWebServer.enqueue(new MockResponse()
+                    .addHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                    .setBody("""
+                            {
+                                "isbn": "%s",
+                                "title": "Title",
+                                "author": "Author",
+                                "price": 9.90
+                            }
+                            """.formatted(bookIsbn)));
+        }
+
+        StepVerifier.create(uncachedBookClient.getBookByIsbn(bookIsbn).then(uncachedBookClient.getBookByIsbn(bookIsbn)))
+                .expectNextMatches(b -> b.isbn().equals(bookIsbn))
+                .verifyComplete();
+
+        assertThat(mockWebServer.getRequestCount()).isEqualTo(2);
+    }
+
+    @Test
+    void whenBookUpdatedDuringFetchThenFetchedBookNotCached() {
+        var bookIsbn = "1234567893";
+
+        // the book-updated event is received while the catalog answers with the previous price
+        mockWebServer.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                bookCache.update(new Book(bookIsbn, "Title", "Author", Price.of("12.90")));
+                return new MockResponse()
+                        .addHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .setBody("""
+                                {
+                                    "isbn": "%s",
+                                    "title": "Title",
+                                    "author": "Author",
+                                    "price": 9.90
+                                }
+                                """.formatted(bookIsbn));
+            }
+        });
+
+        StepVerifier.create(bookClient.getBookByIsbn(bookIsbn))
+                .expectNextMatches(b -> b.isbn().equals(bookIsbn))
+                .verifyComplete();
+
+        assertThat(bookCache.get(bookIsbn)).isEmpty();
+    }
 }
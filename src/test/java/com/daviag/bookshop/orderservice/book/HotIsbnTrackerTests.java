@@ -0,0 +1,45 @@
+package com.daviag.bookshop.orderservice.book;
+
+import com.daviag.bookshop.orderservice.config.HotIsbnProperties;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class HotIsbnTrackerTests {
+
+    private final HotIsbnTracker hotIsbnTracker =
+            new HotIsbnTracker(new HotIsbnProperties(3, 0, Duration.ofDays(1), Duration.ofSeconds(1)));
+
+    @Test
+    void whenIsbnsRecordedThenTopSortedByCount() {
+        record("1234567890", 5);
+        record("1234567891", 2);
+        record("1234567892", 8);
+
+        assertThat(hotIsbnTracker.top(2))
+                .extracting(HotIsbn::isbn)
+                .containsExactly("1234567892", "1234567890");
+    }
+
+    @Test
+    void whenMoreIsbnsThanCapacityThenHeavyHittersKept() {
+        record("1234567890", 50);
+        record("1234567891", 30);
+        for (int i = 0; i < 20; i++) {
+            hotIsbnTracker.record("99999" + i);
+        }
+
+        assertThat(hotIsbnTracker.top(3)).hasSize(3);
+        assertThat(hotIsbnTracker.top(2))
+                .extracting(HotIsbn::isbn)
+                .containsExactlyInAnyOrder("1234567890", "1234567891");
+    }
+
+    private void record(String isbn, int times) {
+        for (int i = 0; i < times; i++) {
+            hotIsbnTracker.record(isbn);
+        }
+    }
+}
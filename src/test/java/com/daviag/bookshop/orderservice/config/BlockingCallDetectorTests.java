@@ -0,0 +1,43 @@
+package com.daviag.bookshop.orderservice.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.blockhound.BlockingMethod;
+import reactor.blockhound.BlockingOperationError;
+
+import java.lang.reflect.Modifier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// the callback only: installing BlockHound needs a JVM option, see the blockingDetection build property
+public class BlockingCallDetectorTests {
+
+    private static final BlockingMethod SLEEP =
+            new BlockingMethod("java/lang/Thread", "sleep", Modifier.PUBLIC | Modifier.STATIC);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void whenFailActionThenBlockingCallFailedAndCounted() {
+        var detector = new BlockingCallDetector(
+                new BlockingDetectionProperties(true, BlockingDetectionProperties.Action.FAIL), meterRegistry);
+
+        assertThatThrownBy(() -> detector.onBlockingCall(SLEEP))
+                .isInstanceOf(BlockingOperationError.class)
+                .hasMessageContaining("java.lang.Thread.sleep");
+        assertThat(meterRegistry.counter("blocking.calls", "method", "java.lang.Thread.sleep").count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void whenReportActionThenBlockingCallCountedOnly() {
+        var detector = new BlockingCallDetector(
+                new BlockingDetectionProperties(true, BlockingDetectionProperties.Action.REPORT), meterRegistry);
+
+        assertThatCode(() -> detector.onBlockingCall(SLEEP)).doesNotThrowAnyException();
+        assertThat(meterRegistry.counter("blocking.calls", "method", "java.lang.Thread.sleep").count())
+                .isEqualTo(1);
+    }
+}
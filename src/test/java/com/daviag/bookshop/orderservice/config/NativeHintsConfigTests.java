@@ -0,0 +1,30 @@
+package com.daviag.bookshop.orderservice.config;
+
+import com.daviag.bookshop.orderservice.book.Book;
+import com.daviag.bookshop.orderservice.book.BookUpdatedMessage;
+import com.daviag.bookshop.orderservice.book.Price;
+import com.daviag.bookshop.orderservice.order.domain.Order;
+import com.daviag.bookshop.orderservice.order.event.OrderAcceptedMessage;
+import com.daviag.bookshop.orderservice.order.event.OrderDispatchedMessage;
+import com.daviag.bookshop.orderservice.order.web.OrderRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+import org.springframework.context.aot.ReflectiveRuntimeHintsRegistrar;
+
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class NativeHintsConfigTests {
+
+    @Test
+    void whenHintsRegisteredThenDomainTypesBindable() {
+        var hints = new RuntimeHints();
+        new ReflectiveRuntimeHintsRegistrar().registerRuntimeHints(hints, NativeHintsConfig.class);
+
+        Stream.of(Order.class, OrderRequest.class, Book.class, Price.class, OrderAcceptedMessage.class,
+                        OrderDispatchedMessage.class, BookUpdatedMessage.class)
+                .forEach(type -> assertThat(RuntimeHintsPredicates.reflection().onType(type)).accepts(hints));
+    }
+}
@@ -0,0 +1,167 @@
+package com.daviag.bookshop.orderservice.order.domain;
+
+import com.daviag.bookshop.orderservice.book.Book;
+import com.daviag.bookshop.orderservice.book.BookClient;
+import com.daviag.bookshop.orderservice.book.CatalogUnavailableException;
+import com.daviag.bookshop.orderservice.book.HotIsbnTracker;
+import com.daviag.bookshop.orderservice.book.Price;
+import com.daviag.bookshop.orderservice.config.HotIsbnProperties;
+import com.daviag.bookshop.orderservice.config.OrderAcceptanceProperties;
+import com.daviag.bookshop.orderservice.config.SchedulerProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.stream.function.StreamBridge;
+import org.springframework.messaging.MessagingException;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Set;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyShort;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class OrderAcceptancePipelineTests {
+
+    private OrderRepository orderRepository;
+    private BookClient bookClient;
+    private StreamBridge streamBridge;
+    private TransactionalOperator transactionalOperator;
+    private OrderSchedulers schedulers;
+    private OrderAcceptancePipeline pipeline;
+
+    @BeforeEach
+    void setUp() {
+        orderRepository = mock(OrderRepository.class);
+        bookClient = mock(BookClient.class);
+        streamBridge = mock(StreamBridge.class);
+        transactionalOperator = mock(TransactionalOperator.class);
+        given(transactionalOperator.transactional(any(Mono.class))).willAnswer(invocation -> invocation.getArgument(0));
+        var stage = new SchedulerProperties.Stage(2, 100, Duration.ofSeconds(60));
+        schedulers = new OrderSchedulers(new SchedulerProperties(stage, stage, stage), new SimpleMeterRegistry());
+        var orderService = new OrderService(orderRepository, bookClient, streamBridge,
+                new HotIsbnTracker(new HotIsbnProperties(10, 0, Duration.ofDays(1), Duration.ofSeconds(1))),
+                schedulers, transactionalOperator);
+        var properties = new OrderAcceptanceProperties(true, 1, 10, Duration.ofMillis(10), 1,
+                2, Duration.ofMillis(10), Duration.ofHours(1), Duration.ofHours(1));
+        pipeline = new OrderAcceptancePipeline(orderService, properties);
+
+        given(orderRepository.save(any(Order.class))).willAnswer(invocation -> {
+            Order order = invocation.getArgument(0);
+            return Mono.just(new Order(394L, order.bookIsbn(), order.bookName(), order.bookPrice(),
+                    order.quantity(), order.status(), null, null, null, null, order.version()));
+        });
+        given(orderRepository.updateStatusAndBook(anyLong(), anyShort(), any(), any(), any(), any(Instant.class)))
+                .willAnswer(invocation -> Mono.just(new Order(invocation.getArgument(0), "1234567890", null,
+                        null, 1, OrderStatus.fromCode(invocation.<Short>getArgument(1)), null, null, null, null, 1)));
+        given(orderRepository.findAllPendingCreatedBefore(any(Instant.class))).willReturn(Flux.empty());
+    }
+
+    @AfterEach
+    void tearDown() {
+        pipeline.stop();
+        schedulers.dispose();
+    }
+
+    @Test
+    void whenOrderSubmittedThenPendingAndLaterAccepted() {
+        var isbn = "1234567890";
+        given(bookClient.findBookByIsbn(isbn)).willReturn(Mono.just(new Book(isbn, "Title", "Author", Price.of("9.90"))));
+        pipeline.start();
+
+        StepVerifier.create(pipeline.submitOrder(isbn, 1))
+                .expectNextMatches(order -> order.status().equals(OrderStatus.PENDING))
+                .verifyComplete();
+
+        verify(orderRepository, timeout(1000)).updateStatusAndBook(eq(394L), eq(OrderStatus.ACCEPTED.code()),
+                eq(Set.of(OrderStatus.PENDING.code())), eq("Title - Author"), eq(990), any(Instant.class));
+        verify(streamBridge, timeout(1000)).send(eq("acceptOrder-out-0"), any());
+    }
+
+    @Test
+    void whenCatalogUnavailableOnceThenBatchRetried() {
+        var isbn = "1234567893";
+        given(bookClient.findBookByIsbn(isbn)).willReturn(
+                Mono.error(new CatalogUnavailableException(isbn, new IllegalStateException("503 Service Unavailable"))),
+                Mono.just(new Book(isbn, "Title", "Author", Price.of("9.90"))));
+        pipeline.start();
+
+        StepVerifier.create(pipeline.submitOrder(isbn, 1))
+                .expectNextMatches(order -> order.status().equals(OrderStatus.PENDING))
+                .verifyComplete();
+
+        verify(orderRepository, timeout(1000)).updateStatusAndBook(eq(394L), eq(OrderStatus.ACCEPTED.code()),
+                eq(Set.of(OrderStatus.PENDING.code())), eq("Title - Author"), eq(990), any(Instant.class));
+        verify(orderRepository, never()).updateStatusAndBook(anyLong(), eq(OrderStatus.REJECTED.code()),
+                any(), any(), any(), any(Instant.class));
+        verify(bookClient, times(2)).findBookByIsbn(isbn);
+    }
+
+    @Test
+    void whenAcceptedEventNotSentThenResolutionRolledBackAndRetried() {
+        var isbn = "1234567894";
+        given(bookClient.findBookByIsbn(isbn)).willReturn(Mono.just(new Book(isbn, "Title", "Author", Price.of("9.90"))));
+        given(streamBridge.send(eq("acceptOrder-out-0"), any()))
+                .willThrow(new MessagingException("broker unavailable"))
+                .willReturn(true);
+        pipeline.start();
+
+        StepVerifier.create(pipeline.submitOrder(isbn, 1))
+                .expectNextMatches(order -> order.status().equals(OrderStatus.PENDING))
+                .verifyComplete();
+
+        // the update and the send run in one transaction, rolled back on the failed send
+        verify(streamBridge, timeout(1000).times(2)).send(eq("acceptOrder-out-0"), any());
+        verify(orderRepository, times(2)).updateStatusAndBook(eq(394L), eq(OrderStatus.ACCEPTED.code()),
+                eq(Set.of(OrderStatus.PENDING.code())), eq("Title - Author"), eq(990), any(Instant.class));
+        verify(transactionalOperator, times(2)).transactional(any(Mono.class));
+    }
+
+    @Test
+    void whenBacklogFullThenOrderRefused() {
+        // not started: the first order stays in the queue and takes the only slot
+        StepVerifier.create(pipeline.submitOrder("1234567890", 1))
+                .expectNextCount(1)
+                .verifyComplete();
+
+        StepVerifier.create(pipeline.submitOrder("1234567891", 1))
+                .expectError(OrderBacklogFullException.class)
+                .verify();
+
+        verify(orderRepository, times(1)).save(any(Order.class));
+    }
+
+    @Test
+    void whenStartedThenStalePendingOrdersRecovered() {
+        var isbn = "1234567892";
+        given(orderRepository.findAllPendingCreatedBefore(any(Instant.class)))
+                .willReturn(Flux.just(new Order(395L, isbn, null, null, 2, OrderStatus.PENDING,
+                        null, null, null, null, 0)));
+        given(bookClient.findBookByIsbn(isbn)).willReturn(Mono.empty());
+        var startedAt = Instant.now();
+
+        pipeline.start();
+
+        verify(orderRepository, timeout(1000))
+                .updateStatusAndBook(eq(395L), eq(OrderStatus.REJECTED.code()), eq(Set.of(OrderStatus.PENDING.code())),
+                        isNull(), isNull(), any(Instant.class));
+        // orders younger than stale-after may be in flight in another replica
+        verify(orderRepository).findAllPendingCreatedBefore(
+                argThat(before -> !before.isAfter(startedAt.minus(Duration.ofMinutes(59)))));
+    }
+}
@@ -0,0 +1,85 @@
+package com.daviag.bookshop.orderservice.order.domain;
+
+import com.daviag.bookshop.orderservice.config.DataConfig;
+import com.daviag.bookshop.orderservice.config.OrderExportProperties;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.autoconfigure.data.r2dbc.DataR2dbcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataR2dbcTest(properties = "bs.order-export.fetch-size=10")
+@Import({DataConfig.class, OrderExportRepository.class})
+@EnableConfigurationProperties(OrderExportProperties.class)
+@Testcontainers
+public class OrderExportRepositoryTests {
+
+    private static final int EXPORTED_ORDERS = 95;
+
+    @Container
+    static PostgreSQLContainer<?> postgresql =
+            new PostgreSQLContainer<>(DockerImageName.parse("postgres:16-alpine"));
+
+    @DynamicPropertySource
+    static void postgresqlProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.r2dbc.url", OrderExportRepositoryTests::r2dbcUrl);
+        registry.add("spring.r2dbc.username", postgresql::getUsername);
+        registry.add("spring.r2dbc.password", postgresql::getPassword);
+        registry.add("spring.flyway.url", postgresql::getJdbcUrl);
+    }
+
+    private static String r2dbcUrl() {
+        return String.format("r2dbc:postgresql://%s:%s/%s",
+                postgresql.getHost(),
+                postgresql.getMappedPort(PostgreSQLContainer.POSTGRESQL_PORT),
+                postgresql.getDatabaseName());
+    }
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @Autowired
+    private OrderExportRepository orderExportRepository;
+
+    @Test
+    void whenMoreOrdersThanFetchSizeThenAllStreamedInCreationOrder() {
+        // one order a minute during January, inserted in random order, and 10 orders before and after it
+        databaseClient.sql("""
+                        INSERT INTO orders (book_isbn, book_name, book_price, quantity, status,
+                                created_date, last_modified_date, created_by, last_modified_by, version)
+                        SELECT '1234567890', 'Title - Author', 990, 1, 1,
+                               timestamp '2024-01-01' + g * interval '1 minute',
+                               timestamp '2024-01-01' + g * interval '1 minute',
+                               'john', 'john', 0
+                        FROM generate_series(-10, %d) AS g
+                        ORDER BY random()
+                        """.formatted(EXPORTED_ORDERS + 9))
+                .then()
+                .block();
+
+        var orders = orderExportRepository.findAllCreatedBetween(
+                        Instant.parse("2024-01-01T00:00:00Z"),
+                        Instant.parse("2024-01-01T00:00:00Z").plusSeconds(60L * EXPORTED_ORDERS))
+                .collectList()
+                .block();
+
+        assertThat(orders).hasSize(EXPORTED_ORDERS);
+        assertThat(orders).extracting(Order::createdDate)
+                .doesNotHaveDuplicates()
+                .isSorted()
+                .first().isEqualTo(Instant.parse("2024-01-01T00:00:00Z"));
+        assertThat(orders).allMatch(order -> order.status() == OrderStatus.ACCEPTED
+                && order.bookName().equals("Title - Author"));
+    }
+}
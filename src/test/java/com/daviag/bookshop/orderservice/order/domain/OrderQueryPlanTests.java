@@ -0,0 +1,195 @@
+package com.daviag.bookshop.orderservice.order.domain;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.boot.test.autoconfigure.data.r2dbc.DataR2dbcTest;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.lang.reflect.Method;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Guards the execution plans of the queries on the orders table: each query is explained against
+ * a table seeded with a realistic volume, and must neither scan the whole table nor go over its
+ * cost and row budgets. Every query of OrderRepository must have an entry here.
+ */
+@DataR2dbcTest
+@Testcontainers
+public class OrderQueryPlanTests {
+
+    private static final int SEEDED_ORDERS = 200_000;
+    private static final String NOW = "'2024-06-01T00:00:00Z'::timestamptz";
+
+    // bound parameters replaced by literals of the same type
+    private static final Map<String, String> PARAMETERS = Map.ofEntries(
+            Map.entry("id", "394"),
+            Map.entry("createdBy", "'user42'"),
+            Map.entry("newStatus", "3"),
+            Map.entry("previousStatuses", "1"),
+            Map.entry("bookName", "'Title - Author'"),
+            Map.entry("bookPrice", "990"),
+            Map.entry("now", NOW),
+            Map.entry("since", "'2024-05-25T00:00:00Z'::timestamptz"),
+            Map.entry("before", "'2024-05-31T23:55:00Z'::timestamptz"),
+            Map.entry("limit", "50"),
+            Map.entry("from", "'2024-05-01T00:00:00Z'::timestamptz"),
+            Map.entry("to", "'2024-06-01T00:00:00Z'::timestamptz"));
+
+    @Container
+    static PostgreSQLContainer<?> postgresql =
+            new PostgreSQLContainer<>(DockerImageName.parse("postgres:16-alpine"));
+
+    @DynamicPropertySource
+    static void postgresqlProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.r2dbc.url", OrderQueryPlanTests::r2dbcUrl);
+        registry.add("spring.r2dbc.username", postgresql::getUsername);
+        registry.add("spring.r2dbc.password", postgresql::getPassword);
+        registry.add("spring.flyway.url", postgresql::getJdbcUrl);
+    }
+
+    private static String r2dbcUrl() {
+        return String.format("r2dbc:postgresql://%s:%s/%s",
+                postgresql.getHost(),
+                postgresql.getMappedPort(PostgreSQLContainer.POSTGRESQL_PORT),
+                postgresql.getDatabaseName());
+    }
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    static Stream<Arguments> queries() {
+        return Stream.of(
+                // derived queries, as generated by Spring Data R2DBC
+                Arguments.of("findById", "SELECT * FROM orders WHERE id = :id LIMIT 2", 20, 1),
+                Arguments.of("findAllByCreatedBy", "SELECT * FROM orders WHERE created_by = :createdBy", 500, 200),
+                Arguments.of("findAllPendingCreatedBefore", query("findAllPendingCreatedBefore"), 2_000, 1_000),
+                Arguments.of("findTopIsbnsSince", query("findTopIsbnsSince"), 3_000, 50),
+                Arguments.of("updateStatus", query("updateStatus"), 50, 1),
+                Arguments.of("updateStatusAndBook", query("updateStatusAndBook"), 50, 1),
+                Arguments.of("export", OrderExportRepository.EXPORT_QUERY, 10_000, 20_000));
+    }
+
+    private static boolean seeded;
+
+    // not in a @BeforeAll: the table exists only once Flyway has run with the test context
+    @BeforeEach
+    void seedOrders() throws SQLException {
+        if (seeded) {
+            return;
+        }
+        // 1000 books, 5000 users, one order every 5 minutes for about two years
+        execute("""
+                INSERT INTO orders (book_isbn, book_name, book_price, quantity, status,
+                        created_date, last_modified_date, created_by, last_modified_by, version)
+                SELECT lpad((g % 1000)::text, 10, '0'),
+                       'Title ' || (g % 1000) || ' - Author',
+                       990,
+                       1 + g % 5,
+                       -- codes of PENDING, REJECTED, DISPATCHED and ACCEPTED
+                       CASE WHEN g % 1000 = 0 THEN 0
+                            WHEN g % 10 = 0 THEN 2
+                            WHEN g % 3 = 0 THEN 3
+                            ELSE 1 END,
+                       timestamp '2024-06-01' - g * interval '5 minutes',
+                       timestamp '2024-06-01' - g * interval '5 minutes',
+                       'user' || (g % 5000),
+                       'user' || (g % 5000),
+                       0
+                FROM generate_series(1, %d) AS g
+                """.formatted(SEEDED_ORDERS));
+        execute("ANALYZE orders");
+        seeded = true;
+    }
+
+    @Test
+    void whenRepositoryQueryDeclaredThenPlanChecked() {
+        var checkedQueries = queries().map(arguments -> (String) arguments.get()[0]).toList();
+        assertThat(Arrays.stream(OrderRepository.class.getDeclaredMethods()).map(Method::getName))
+                .allMatch(checkedQueries::contains, "has a query plan test");
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("queries")
+    void whenQueryExplainedThenPlanWithinBudget(String name, String sql, int maxCost, int maxRows)
+            throws Exception {
+        var plan = explain(withLiterals(sql)).get(0).get("Plan");
+
+        assertThat(sequentialScans(plan))
+                .as("sequential scans of orders in the plan of %s:%n%s", name, plan.toPrettyString())
+                .isEmpty();
+        assertThat(plan.get("Total Cost").asDouble())
+                .as("cost of %s", name)
+                .isLessThanOrEqualTo(maxCost);
+        assertThat(plan.get("Plan Rows").asDouble())
+                .as("estimated rows of %s", name)
+                .isLessThanOrEqualTo(maxRows);
+    }
+
+    private static String query(String repositoryMethod) {
+        return Arrays.stream(OrderRepository.class.getDeclaredMethods())
+                .filter(method -> method.getName().equals(repositoryMethod))
+                .findFirst()
+                .map(method -> method.getAnnotation(Query.class).value())
+                .orElseThrow();
+    }
+
+    private static String withLiterals(String sql) {
+        Matcher matcher = Pattern.compile(":(\\w+)").matcher(sql);
+        var result = new StringBuilder();
+        while (matcher.find()) {
+            var literal = PARAMETERS.get(matcher.group(1));
+            assertThat(literal).as("literal for parameter %s", matcher.group(1)).isNotNull();
+            matcher.appendReplacement(result, Matcher.quoteReplacement(literal));
+        }
+        matcher.appendTail(result);
+        return result.toString();
+    }
+
+    private static List<JsonNode> sequentialScans(JsonNode plan) {
+        var scans = new ArrayList<JsonNode>();
+        if ("Seq Scan".equals(plan.path("Node Type").asText()) &&
+                "orders".equals(plan.path("Relation Name").asText())) {
+            scans.add(plan);
+        }
+        plan.path("Plans").forEach(child -> scans.addAll(sequentialScans(child)));
+        return scans;
+    }
+
+    private JsonNode explain(String sql) throws Exception {
+        try (var connection = DriverManager.getConnection(postgresql.getJdbcUrl(),
+                postgresql.getUsername(), postgresql.getPassword());
+             var statement = connection.createStatement();
+             var resultSet = statement.executeQuery("EXPLAIN (FORMAT JSON) " + sql)) {
+            resultSet.next();
+            return objectMapper.readTree(resultSet.getString(1));
+        }
+    }
+
+    private static void execute(String sql) throws SQLException {
+        try (var connection = DriverManager.getConnection(postgresql.getJdbcUrl(),
+                postgresql.getUsername(), postgresql.getPassword());
+             var statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.daviag.bookshop.orderservice.order.domain;
 
+import com.daviag.bookshop.orderservice.book.Book;
+import com.daviag.bookshop.orderservice.book.Price;
 import com.daviag.bookshop.orderservice.config.DataConfig;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -14,7 +16,11 @@ import org.testcontainers.junit.jupiter.Testcontainers;
 import org.testcontainers.utility.DockerImageName;
 import reactor.test.StepVerifier;
 
+import java.time.Instant;
 import java.util.Objects;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
 
 @DataR2dbcTest
 @Import(DataConfig.class)
@@ -59,6 +65,64 @@ public class OrderRepositoryR2dbcTests {
                 .verifyComplete();
     }
 
+    @Test
+    void findPendingOrders() {
+        var pendingOrder = OrderService.buildPendingOrder("1234567890", 3);
+        StepVerifier.create(orderRepository.save(pendingOrder)
+                        .zipWhen(savedOrder -> orderRepository.findAllPendingCreatedBefore(Instant.now().plusSeconds(60))
+                                .collectList()))
+                .assertNext(savedAndPending -> {
+                    assertThat(savedAndPending.getT2()).extracting(Order::id).contains(savedAndPending.getT1().id());
+                    assertThat(savedAndPending.getT2()).allMatch(order -> order.status().equals(OrderStatus.PENDING));
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void whenAcceptedOrderDispatchedThenStatusAndVersionUpdated() {
+        var acceptedOrder = Order.of("1234567890", "Title - Author", Price.of("9.90"), 1, OrderStatus.ACCEPTED);
+        StepVerifier.create(orderRepository.save(acceptedOrder)
+                        .flatMap(order -> orderRepository.updateStatus(order.id(), OrderStatus.DISPATCHED.code(),
+                                Set.of(OrderStatus.ACCEPTED.code()), Instant.now())))
+                .expectNextMatches(order -> order.status().equals(OrderStatus.DISPATCHED) &&
+                        order.version() == 2)
+                .verifyComplete();
+    }
+
+    @Test
+    void whenRejectedOrderDispatchedThenNotUpdated() {
+        var rejectedOrder = OrderService.buildRejectedOrder("1234567890", 3);
+        StepVerifier.create(orderRepository.save(rejectedOrder)
+                        .flatMap(order -> orderRepository.updateStatus(order.id(), OrderStatus.DISPATCHED.code(),
+                                Set.of(OrderStatus.ACCEPTED.code()), Instant.now())))
+                .expectNextCount(0)
+                .verifyComplete();
+    }
+
+    @Test
+    @WithMockUser("bjorn")
+    void whenAcceptedOrderReadThenBookNameAndPriceFromCompactColumns() {
+        var book = new Book("1234567897", "Title", "Author", Price.of("12.34"));
+        StepVerifier.create(orderRepository.save(OrderService.buildAcceptedOrder(book, 2))
+                        .thenMany(orderRepository.findAllByCreatedBy("bjorn")))
+                .expectNextMatches(order -> order.bookName().equals("Title - Author") &&
+                        order.bookPrice().equals(Price.of("12.34")) &&
+                        order.status().equals(OrderStatus.ACCEPTED))
+                .verifyComplete();
+    }
+
+    @Test
+    void whenPendingOrderAcceptedThenBookNameAndPriceStored() {
+        var pendingOrder = OrderService.buildPendingOrder("1234567898", 1);
+        StepVerifier.create(orderRepository.save(pendingOrder)
+                        .flatMap(order -> orderRepository.updateStatusAndBook(order.id(), OrderStatus.ACCEPTED.code(),
+                                Set.of(OrderStatus.PENDING.code()), "Title - Author", 990, Instant.now())))
+                .expectNextMatches(order -> order.bookName().equals("Title - Author") &&
+                        order.bookPrice().equals(Price.of("9.90")) &&
+                        order.status().equals(OrderStatus.ACCEPTED))
+                .verifyComplete();
+    }
+
     @Test
     void whenCreateOrderNotAuthenticatedThenNoAuditMetadata() {
         var rejectedOrder = OrderService.buildRejectedOrder( "1234567890", 3);
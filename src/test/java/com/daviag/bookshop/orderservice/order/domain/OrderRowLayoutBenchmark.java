@@ -0,0 +1,172 @@
+package com.daviag.bookshop.orderservice.order.domain;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.test.autoconfigure.data.r2dbc.DataR2dbcTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Row size and full read throughput of the orders table, in its compact layout and in the layout
+ * it had up to V5 (price as float8, status as varchar), both seeded with the same orders.
+ * Run with ./gradlew benchmark
+ */
+@Tag("benchmark")
+@DataR2dbcTest
+@Testcontainers
+public class OrderRowLayoutBenchmark {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderRowLayoutBenchmark.class);
+
+    private static final int SEEDED_ORDERS = 1_000_000;
+    private static final int ROUNDS = 6;
+
+    private static final String COMPACT_READ = "SELECT * FROM orders";
+    private static final String PREVIOUS_READ = "SELECT * FROM orders_previous";
+
+    @Container
+    static PostgreSQLContainer<?> postgresql =
+            new PostgreSQLContainer<>(DockerImageName.parse("postgres:16-alpine"));
+
+    @DynamicPropertySource
+    static void postgresqlProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.r2dbc.url", OrderRowLayoutBenchmark::r2dbcUrl);
+        registry.add("spring.r2dbc.username", postgresql::getUsername);
+        registry.add("spring.r2dbc.password", postgresql::getPassword);
+        registry.add("spring.flyway.url", postgresql::getJdbcUrl);
+    }
+
+    private static String r2dbcUrl() {
+        return String.format("r2dbc:postgresql://%s:%s/%s",
+                postgresql.getHost(),
+                postgresql.getMappedPort(PostgreSQLContainer.POSTGRESQL_PORT),
+                postgresql.getDatabaseName());
+    }
+
+    @Test
+    void rowSizeAndReadThroughput() throws SQLException {
+        try (var connection = connect()) {
+            seed(connection);
+
+            long compactRow = queryLong(connection, "SELECT avg(pg_column_size(o.*))::bigint FROM orders o");
+            long previousRow = queryLong(connection, "SELECT avg(pg_column_size(o.*))::bigint FROM orders_previous o");
+            long compactTable = queryLong(connection, "SELECT pg_table_size('orders')");
+            long previousTable = queryLong(connection, "SELECT pg_table_size('orders_previous')");
+
+            long compactRowsPerSecond = rowsPerSecond(connection, COMPACT_READ);
+            long previousRowsPerSecond = rowsPerSecond(connection, PREVIOUS_READ);
+
+            log.info("Average row: compact {} bytes, previous {} bytes", compactRow, previousRow);
+            log.info("Table: compact {} MB, previous {} MB", compactTable >> 20, previousTable >> 20);
+            log.info("Full read: compact {} rows/s, previous {} rows/s", compactRowsPerSecond, previousRowsPerSecond);
+            assertThat(compactRow).isLessThan(previousRow);
+            assertThat(compactTable).isLessThan(previousTable);
+        }
+    }
+
+    // same orders in both layouts: 1000 books, 5000 users, one order every minute
+    private static void seed(Connection connection) throws SQLException {
+        try (var statement = connection.createStatement()) {
+            statement.execute("""
+                    CREATE TABLE orders_previous (
+                      id                  BIGSERIAL PRIMARY KEY NOT NULL,
+                      book_isbn           varchar(255) NOT NULL,
+                      book_name           varchar(255),
+                      book_price          float8,
+                      quantity            int NOT NULL,
+                      status              varchar(255) NOT NULL,
+                      created_date        timestamp NOT NULL,
+                      last_modified_date  timestamp NOT NULL,
+                      version             integer NOT NULL,
+                      created_by          varchar(255),
+                      last_modified_by    varchar(255)
+                    )
+                    """);
+            statement.execute("""
+                    INSERT INTO orders (book_isbn, book_name, book_price, quantity, status,
+                            created_date, last_modified_date, created_by, last_modified_by, version)
+                    SELECT lpad((g % 1000)::text, 10, '0'),
+                           -- no name nor price for pending and rejected orders
+                           CASE WHEN g % 10 <> 0 THEN 'The Title of Book ' || (g % 1000) || ' - Firstname Lastname' END,
+                           CASE WHEN g % 10 <> 0 THEN 990 + g % 1000 END,
+                           1 + g % 5,
+                           CASE WHEN g % 1000 = 0 THEN 0
+                                WHEN g % 10 = 0 THEN 2
+                                WHEN g % 3 = 0 THEN 3
+                                ELSE 1 END,
+                           timestamp '2024-06-01' - g * interval '1 minute',
+                           timestamp '2024-06-01' - g * interval '1 minute',
+                           'user' || (g % 5000),
+                           'user' || (g % 5000),
+                           0
+                    FROM generate_series(1, %d) AS g
+                    """.formatted(SEEDED_ORDERS));
+            statement.execute("""
+                    INSERT INTO orders_previous (book_isbn, book_name, book_price, quantity, status,
+                            created_date, last_modified_date, created_by, last_modified_by, version)
+                    SELECT o.book_isbn,
+                           o.book_name,
+                           o.book_price / 100.0,
+                           o.quantity,
+                           CASE o.status WHEN 0 THEN 'PENDING' WHEN 1 THEN 'ACCEPTED'
+                                         WHEN 2 THEN 'REJECTED' ELSE 'DISPATCHED' END,
+                           o.created_date, o.last_modified_date, o.created_by, o.last_modified_by, o.version
+                    FROM orders o
+                    ORDER BY o.id
+                    """);
+            statement.execute("VACUUM FULL ANALYZE orders");
+            statement.execute("VACUUM FULL ANALYZE orders_previous");
+        }
+    }
+
+    // every column of every row read through a cursor, as an export does; the first rounds warm up
+    private static long rowsPerSecond(Connection connection, String sql) throws SQLException {
+        long bestNanos = Long.MAX_VALUE;
+        connection.setAutoCommit(false);
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            try (var statement = connection.createStatement()) {
+                statement.setFetchSize(1000);
+                try (var resultSet = statement.executeQuery(sql)) {
+                    int columns = resultSet.getMetaData().getColumnCount();
+                    while (resultSet.next()) {
+                        for (int column = 1; column <= columns; column++) {
+                            resultSet.getObject(column);
+                        }
+                    }
+                }
+            }
+            if (round >= ROUNDS / 2) {
+                bestNanos = Math.min(bestNanos, System.nanoTime() - start);
+            }
+        }
+        connection.commit();
+        connection.setAutoCommit(true);
+        return SEEDED_ORDERS * 1_000_000_000L / bestNanos;
+    }
+
+    private static long queryLong(Connection connection, String sql) throws SQLException {
+        try (var statement = connection.createStatement();
+             var resultSet = statement.executeQuery(sql)) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+
+    private static Connection connect() throws SQLException {
+        return DriverManager.getConnection(postgresql.getJdbcUrl(),
+                postgresql.getUsername(), postgresql.getPassword());
+    }
+}
@@ -0,0 +1,136 @@
+package com.daviag.bookshop.orderservice.order.domain;
+
+import com.daviag.bookshop.orderservice.book.Book;
+import com.daviag.bookshop.orderservice.book.BookClient;
+import com.daviag.bookshop.orderservice.book.HotIsbnTracker;
+import com.daviag.bookshop.orderservice.book.Price;
+import com.daviag.bookshop.orderservice.config.HotIsbnProperties;
+import com.daviag.bookshop.orderservice.config.SchedulerProperties;
+import com.daviag.bookshop.orderservice.order.event.OrderDispatchedMessage;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.stream.function.StreamBridge;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyShort;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+public class OrderServiceTests {
+
+    private OrderRepository orderRepository;
+    private BookClient bookClient;
+    private StreamBridge streamBridge;
+    private OrderSchedulers schedulers;
+    private OrderService orderService;
+
+    @BeforeEach
+    void setUp() {
+        orderRepository = mock(OrderRepository.class);
+        bookClient = mock(BookClient.class);
+        streamBridge = mock(StreamBridge.class);
+        var stage = new SchedulerProperties.Stage(2, 100, Duration.ofSeconds(60));
+        schedulers = new OrderSchedulers(new SchedulerProperties(stage, stage, stage), new SimpleMeterRegistry());
+        orderService = new OrderService(orderRepository, bookClient, streamBridge,
+                new HotIsbnTracker(new HotIsbnProperties(10, 0, Duration.ofDays(1), Duration.ofSeconds(1))),
+                schedulers, mock(TransactionalOperator.class));
+        given(orderRepository.updateStatus(anyLong(), anyShort(), any(), any())).willReturn(Mono.empty());
+    }
+
+    @AfterEach
+    void tearDown() {
+        schedulers.dispose();
+    }
+
+    @Test
+    void whenOrderAcceptedThenEventSentOnMessagingScheduler() {
+        var isbn = "1234567890";
+        var sendingThread = new AtomicReference<String>();
+        given(bookClient.getBookByIsbn(isbn))
+                .willReturn(Mono.just(new Book(isbn, "Title", "Author", Price.of("9.90"))));
+        given(orderRepository.save(any(Order.class))).willAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+        given(streamBridge.send(eq("acceptOrder-out-0"), any())).willAnswer(invocation -> {
+            sendingThread.set(Thread.currentThread().getName());
+            return true;
+        });
+
+        StepVerifier.create(orderService.submitOrder(isbn, 1))
+                .expectNextMatches(order -> order.status().equals(OrderStatus.ACCEPTED))
+                .verifyComplete();
+
+        assertThat(sendingThread.get()).startsWith("orders-messaging");
+    }
+
+    @Test
+    void whenOrderRejectedThenDispatchIllegal() {
+        given(orderRepository.findById(394L)).willReturn(Mono.just(order(OrderStatus.REJECTED)));
+
+        StepVerifier.create(orderService.transitionOrder(394L, OrderStatus.DISPATCHED))
+                .expectError(IllegalOrderTransitionException.class)
+                .verify();
+    }
+
+    @Test
+    void whenOrderAlreadyDispatchedThenDispatchDuplicate() {
+        given(orderRepository.findById(394L)).willReturn(Mono.just(order(OrderStatus.DISPATCHED)));
+
+        StepVerifier.create(orderService.transitionOrder(394L, OrderStatus.DISPATCHED))
+                .expectError(DuplicateOrderTransitionException.class)
+                .verify();
+    }
+
+    @Test
+    void whenOrderNotExistingThenNotFound() {
+        given(orderRepository.findById(394L)).willReturn(Mono.empty());
+
+        StepVerifier.create(orderService.transitionOrder(394L, OrderStatus.DISPATCHED))
+                .expectError(OrderNotFoundException.class)
+                .verify();
+    }
+
+    @Test
+    void whenTransitionToAcceptedThenRefused() {
+        StepVerifier.create(orderService.transitionOrder(394L, OrderStatus.ACCEPTED))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+    }
+
+    @Test
+    void whenDispatchedEventRedeliveredThenIgnored() {
+        given(orderRepository.findById(394L)).willReturn(Mono.just(order(OrderStatus.DISPATCHED)));
+
+        StepVerifier.create(orderService.consumeOrderDispatchedEvent(Flux.just(new OrderDispatchedMessage(394L))))
+                .verifyComplete();
+    }
+
+    @Test
+    void whenDispatchedEventFailsThenNextEventsStillProcessed() {
+        given(orderRepository.updateStatus(eq(394L), anyShort(), any(), any()))
+                .willReturn(Mono.error(new RejectedExecutionException("persistence stage saturated")));
+        given(orderRepository.updateStatus(eq(395L), anyShort(), any(), any()))
+                .willReturn(Mono.just(order(OrderStatus.DISPATCHED)));
+
+        StepVerifier.create(orderService.consumeOrderDispatchedEvent(Flux.just(
+                        new OrderDispatchedMessage(394L), new OrderDispatchedMessage(395L))))
+                .expectNextMatches(order -> order.status().equals(OrderStatus.DISPATCHED))
+                .verifyComplete();
+    }
+
+    private static Order order(OrderStatus status) {
+        return new Order(394L, "1234567890", "Title - Author", Price.of("9.90"), 1, status,
+                null, null, null, null, 2);
+    }
+}
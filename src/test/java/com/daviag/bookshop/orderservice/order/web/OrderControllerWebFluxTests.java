@@ -2,6 +2,8 @@ package com.daviag.bookshop.orderservice.order.web;
 
 import com.daviag.bookshop.orderservice.config.SecurityConfig;
 import com.daviag.bookshop.orderservice.order.domain.Order;
+import com.daviag.bookshop.orderservice.order.domain.OrderAcceptancePipeline;
+import com.daviag.bookshop.orderservice.order.domain.OrderBacklogFullException;
 import com.daviag.bookshop.orderservice.order.domain.OrderService;
 import com.daviag.bookshop.orderservice.order.domain.OrderStatus;
 import org.assertj.core.api.Assertions;
@@ -11,12 +13,16 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
 import org.springframework.security.test.web.reactive.server.SecurityMockServerConfigurers;
 import org.springframework.test.web.reactive.server.WebTestClient;
 import reactor.core.publisher.Mono;
 
+import java.util.concurrent.RejectedExecutionException;
+
 import static org.assertj.core.api.Assertions.assertThat;
 
 @WebFluxTest(OrderController.class)
@@ -29,6 +35,9 @@ public class OrderControllerWebFluxTests {
     @MockBean
     private OrderService orderService;
 
+    @MockBean
+    private OrderAcceptancePipeline orderAcceptancePipeline;
+
     @MockBean
     private ReactiveJwtDecoder reactiveJwtDecoder;
 
@@ -55,6 +64,69 @@ public class OrderControllerWebFluxTests {
                 });
     }
 
+    @Test
+    void whenAsyncAcceptanceThenPendingOrderAccepted() {
+        var orderRequest = new OrderRequest("1234567890", 3);
+        var expectedOrder = OrderService.buildPendingOrder(orderRequest.isbn(), orderRequest.quantity());
+
+        BDDMockito.given(orderAcceptancePipeline.isEnabled()).willReturn(true);
+        BDDMockito.given(orderAcceptancePipeline.submitOrder(orderRequest.isbn(), orderRequest.quantity()))
+                .willReturn(Mono.just(expectedOrder));
+
+        webTestClient
+                .mutateWith(SecurityMockServerConfigurers
+                        .mockJwt()
+                        .authorities(new SimpleGrantedAuthority("ROLE_customer")))
+                .post()
+                .uri("/orders")
+                .bodyValue(orderRequest)
+                .exchange()
+                .expectStatus().isAccepted()
+                .expectBody(Order.class).value(o -> {
+                    assertThat(o).isNotNull();
+                    assertThat(o.status()).isEqualTo(OrderStatus.PENDING);
+                });
+    }
+
+    @Test
+    void whenAsyncAcceptanceAndBacklogFullThen503() {
+        var orderRequest = new OrderRequest("1234567890", 3);
+
+        BDDMockito.given(orderAcceptancePipeline.isEnabled()).willReturn(true);
+        BDDMockito.given(orderAcceptancePipeline.submitOrder(orderRequest.isbn(), orderRequest.quantity()))
+                .willReturn(Mono.error(new OrderBacklogFullException(256)));
+
+        webTestClient
+                .mutateWith(SecurityMockServerConfigurers
+                        .mockJwt()
+                        .authorities(new SimpleGrantedAuthority("ROLE_customer")))
+                .post()
+                .uri("/orders")
+                .bodyValue(orderRequest)
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.SERVICE_UNAVAILABLE)
+                .expectHeader().exists(HttpHeaders.RETRY_AFTER);
+    }
+
+    @Test
+    void whenOrderSchedulerSaturatedThen503() {
+        var orderRequest = new OrderRequest("1234567890", 3);
+
+        BDDMockito.given(orderService.submitOrder(orderRequest.isbn(), orderRequest.quantity()))
+                .willReturn(Mono.error(new RejectedExecutionException("Task capacity of bounded elastic scheduler reached")));
+
+        webTestClient
+                .mutateWith(SecurityMockServerConfigurers
+                        .mockJwt()
+                        .authorities(new SimpleGrantedAuthority("ROLE_customer")))
+                .post()
+                .uri("/orders")
+                .bodyValue(orderRequest)
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.SERVICE_UNAVAILABLE)
+                .expectHeader().exists(HttpHeaders.RETRY_AFTER);
+    }
+
     @Test
     void whenRequestUnauthenticatedThen401() {
         var orderRequest = new OrderRequest("1234567890", 3);
@@ -0,0 +1,136 @@
+package com.daviag.bookshop.orderservice.order.web;
+
+import com.daviag.bookshop.orderservice.book.Price;
+import com.daviag.bookshop.orderservice.config.SecurityConfig;
+import com.daviag.bookshop.orderservice.order.domain.Order;
+import com.daviag.bookshop.orderservice.order.domain.OrderExportRepository;
+import com.daviag.bookshop.orderservice.order.domain.OrderStatus;
+import org.junit.jupiter.api.Test;
+import org.mockito.BDDMockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+import org.springframework.security.test.web.reactive.server.SecurityMockServerConfigurers;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+
+@WebFluxTest(OrderExportController.class)
+@Import(SecurityConfig.class)
+public class OrderExportControllerWebFluxTests {
+
+    private static final String EXPORT_URI = "/orders/export?from=2024-01-01T00:00:00Z&to=2024-02-01T00:00:00Z";
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @MockBean
+    private OrderExportRepository orderExportRepository;
+
+    @MockBean
+    private ReactiveJwtDecoder reactiveJwtDecoder;
+
+    @Test
+    void whenEmployeeExportsCsvThenOrdersStreamed() {
+        givenOrders();
+
+        webTestClient
+                .mutateWith(SecurityMockServerConfigurers
+                        .mockJwt()
+                        .authorities(new SimpleGrantedAuthority("ROLE_employee")))
+                .get()
+                .uri(EXPORT_URI + "&format=csv")
+                .exchange()
+                .expectStatus().is2xxSuccessful()
+                .expectBody(String.class).value(body -> assertThat(body.lines())
+                        .hasSize(3)
+                        .element(2).isEqualTo("395,1234567891,\"Title, Volume 2 - Author\",9.90,2,ACCEPTED," +
+                                "2024-01-02T10:00:00Z,2024-01-02T10:00:00Z,john,john,1"));
+    }
+
+    @Test
+    void whenEmployeeExportsGzippedNdjsonThenOrdersStreamed() {
+        givenOrders();
+
+        var body = webTestClient
+                .mutateWith(SecurityMockServerConfigurers
+                        .mockJwt()
+                        .authorities(new SimpleGrantedAuthority("ROLE_employee")))
+                .get()
+                .uri(EXPORT_URI + "&gzip=true")
+                .exchange()
+                .expectStatus().is2xxSuccessful()
+                .expectHeader().contentType("application/gzip")
+                .expectHeader().doesNotExist(HttpHeaders.CONTENT_ENCODING)
+                .expectBody(byte[].class).returnResult().getResponseBody();
+
+        assertThat(gunzip(body).lines())
+                .hasSize(2)
+                .allMatch(line -> line.startsWith("{\"id\":39"));
+    }
+
+    @Test
+    void whenUnknownFormatThen400() {
+        webTestClient
+                .mutateWith(SecurityMockServerConfigurers
+                        .mockJwt()
+                        .authorities(new SimpleGrantedAuthority("ROLE_employee")))
+                .get()
+                .uri(EXPORT_URI + "&format=xml")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void whenFromAfterToThen400() {
+        webTestClient
+                .mutateWith(SecurityMockServerConfigurers
+                        .mockJwt()
+                        .authorities(new SimpleGrantedAuthority("ROLE_employee")))
+                .get()
+                .uri("/orders/export?from=2024-02-01T00:00:00Z&to=2024-01-01T00:00:00Z")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void whenCustomerExportsThen403() {
+        webTestClient
+                .mutateWith(SecurityMockServerConfigurers
+                        .mockJwt()
+                        .authorities(new SimpleGrantedAuthority("ROLE_customer")))
+                .get()
+                .uri(EXPORT_URI)
+                .exchange()
+                .expectStatus().isForbidden();
+    }
+
+    private void givenOrders() {
+        var date = Instant.parse("2024-01-02T10:00:00Z");
+        BDDMockito.given(orderExportRepository.findAllCreatedBetween(any(), any()))
+                .willReturn(Flux.just(
+                        new Order(394L, "1234567890", null, null, 1, OrderStatus.REJECTED,
+                                date, date, "john", "john", 1),
+                        new Order(395L, "1234567891", "Title, Volume 2 - Author", Price.of("9.90"), 2, OrderStatus.ACCEPTED,
+                                date, date, "john", "john", 1)));
+    }
+
+    private static String gunzip(byte[] content) {
+        try (var input = new GZIPInputStream(new ByteArrayInputStream(content))) {
+            return new String(input.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.daviag.bookshop.orderservice.order.web;
+
+import com.daviag.bookshop.orderservice.book.Price;
+import com.daviag.bookshop.orderservice.order.domain.Order;
+import com.daviag.bookshop.orderservice.order.domain.OrderStatus;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.netty.buffer.PooledByteBufAllocator;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.json.JsonTest;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.Encoder;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import reactor.core.publisher.Flux;
+
+import java.lang.management.ManagementFactory;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Bytes allocated per encoded order by the Jackson encoder and by {@link OrderJsonEncoder},
+ * writing into pooled Netty buffers as the server does. Run with ./gradlew benchmark
+ */
+@Tag("benchmark")
+@JsonTest
+public class OrderJsonEncoderBenchmark {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderJsonEncoderBenchmark.class);
+
+    private static final int ORDERS = 10_000;
+    private static final int ROUNDS = 20;
+    private static final ResolvableType ORDER_TYPE = ResolvableType.forClass(Order.class);
+    private static final NettyDataBufferFactory BUFFER_FACTORY =
+            new NettyDataBufferFactory(PooledByteBufAllocator.DEFAULT);
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void allocatedBytesPerOrder() {
+        var orders = LongStream.range(0, ORDERS)
+                .mapToObj(id -> new Order(id, "1234567890", "Title - Author", Price.of("9.90"), 1, OrderStatus.ACCEPTED,
+                        Instant.now(), Instant.now(), "user" + id, "user" + id, 1))
+                .toList();
+
+        var jackson = allocatedBytesPerOrder(new Jackson2JsonEncoder(objectMapper), orders);
+        var specialized = allocatedBytesPerOrder(new OrderJsonEncoder(), orders);
+
+        log.info("Bytes allocated per order: Jackson {}, OrderJsonEncoder {}", jackson, specialized);
+        assertThat(specialized).isLessThan(jackson);
+    }
+
+    private <T> long allocatedBytesPerOrder(Encoder<T> encoder, List<? extends T> orders) {
+        var threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long allocated = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            long before = threadMXBean.getCurrentThreadAllocatedBytes();
+            encoder.encode(Flux.<T>fromIterable(orders), BUFFER_FACTORY, ORDER_TYPE, MediaType.APPLICATION_JSON, null)
+                    .doOnNext(DataBufferUtils::release)
+                    .blockLast();
+            // the first half of the rounds warms up the JIT
+            if (round >= ROUNDS / 2) {
+                allocated += threadMXBean.getCurrentThreadAllocatedBytes() - before;
+            }
+        }
+        return allocated / (ROUNDS / 2) / orders.size();
+    }
+}
@@ -0,0 +1,123 @@
+package com.daviag.bookshop.orderservice.order.web;
+
+import com.daviag.bookshop.orderservice.book.Price;
+import com.daviag.bookshop.orderservice.order.domain.Order;
+import com.daviag.bookshop.orderservice.order.domain.OrderService;
+import com.daviag.bookshop.orderservice.order.domain.OrderStatus;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.buffer.UnpooledByteBufAllocator;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.json.JsonTest;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.core.io.buffer.NettyDataBuffer;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
+import org.springframework.http.MediaType;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@JsonTest
+public class OrderJsonEncoderTests {
+
+    private static final ResolvableType ORDER_TYPE = ResolvableType.forClass(Order.class);
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final OrderJsonEncoder encoder = new OrderJsonEncoder();
+
+    @Test
+    void whenOrderEncodedThenSameAsJackson() throws Exception {
+        var order = new Order(394L, "1234567890", "Book Name", Price.of("9.90"), 1,
+                OrderStatus.ACCEPTED, Instant.now(), Instant.now(), "john", "john", 21);
+
+        assertThat(encode(Mono.just(order), MediaType.APPLICATION_JSON))
+                .isEqualTo(objectMapper.writeValueAsString(order));
+    }
+
+    @Test
+    void whenOrderWithNullsAndSpecialCharactersEncodedThenSameAsJackson() throws Exception {
+        var order = new Order(-7L, "12\"34\\56", "Titre été\n\t\u0001 - 作者", null, 5,
+                OrderStatus.REJECTED, Instant.ofEpochSecond(0, 1), null, null, "marlena", 0);
+
+        assertThat(encode(Mono.just(order), MediaType.APPLICATION_JSON))
+                .isEqualTo(objectMapper.writeValueAsString(order));
+    }
+
+    @Test
+    void whenOrdersEncodedAsArrayThenSameAsJackson() throws Exception {
+        var orders = List.of(
+                new Order(394L, "1234567890", "Book Name", Price.of("10000000000.05"), 1, OrderStatus.DISPATCHED,
+                        Instant.now(), Instant.now(), "john", "john", Integer.MAX_VALUE),
+                OrderService.buildRejectedOrder("1234567891", 3));
+
+        assertThat(encode(Flux.fromIterable(orders), MediaType.APPLICATION_JSON))
+                .isEqualTo(objectMapper.writeValueAsString(orders));
+        assertThat(encode(Flux.empty(), MediaType.APPLICATION_JSON))
+                .isEqualTo("[]");
+    }
+
+    @Test
+    void whenOrdersEncodedAsNdjsonThenOneJacksonDocumentPerLine() throws Exception {
+        var orders = List.of(
+                new Order(394L, "1234567890", "Book Name", Price.of("9.90"), 1, OrderStatus.ACCEPTED,
+                        Instant.now(), Instant.now(), "john", "john", 21),
+                OrderService.buildRejectedOrder("1234567891", 3));
+
+        var expected = new StringBuilder();
+        for (var order : orders) {
+            expected.append(objectMapper.writeValueAsString(order)).append('\n');
+        }
+        assertThat(encode(Flux.fromIterable(orders), MediaType.APPLICATION_NDJSON))
+                .isEqualTo(expected.toString());
+    }
+
+    @Test
+    void whenOrderCannotBeWrittenThenBufferReleased() {
+        // buffers that cannot grow past 16 bytes, far less than an order
+        var allocated = new ArrayList<ByteBuf>();
+        var bufferFactory = new NettyDataBufferFactory(UnpooledByteBufAllocator.DEFAULT) {
+            @Override
+            public NettyDataBuffer allocateBuffer(int initialCapacity) {
+                var byteBuf = Unpooled.buffer(16, 16);
+                allocated.add(byteBuf);
+                return wrap(byteBuf);
+            }
+        };
+
+        StepVerifier.create(encoder.encode(Flux.just(OrderService.buildRejectedOrder("1234567891", 3)),
+                        bufferFactory, ORDER_TYPE, MediaType.APPLICATION_NDJSON, null))
+                .expectError(IndexOutOfBoundsException.class)
+                .verify();
+
+        assertThat(allocated).hasSize(1).allMatch(byteBuf -> byteBuf.refCnt() == 0);
+    }
+
+    private String encode(Publisher<Order> orders, MediaType mediaType) {
+        return encoder.encode(orders, DefaultDataBufferFactory.sharedInstance, ORDER_TYPE, mediaType, null)
+                .map(this::toString)
+                .collect(Collectors.joining())
+                .block();
+    }
+
+    private String toString(DataBuffer buffer) {
+        var content = buffer.toString(StandardCharsets.UTF_8);
+        DataBufferUtils.release(buffer);
+        return content;
+    }
+}
@@ -1,5 +1,6 @@
 package com.daviag.bookshop.orderservice.order.web;
 
+import com.daviag.bookshop.orderservice.book.Price;
 import com.daviag.bookshop.orderservice.order.domain.Order;
 import com.daviag.bookshop.orderservice.order.domain.OrderStatus;
 import org.junit.jupiter.api.Test;
@@ -19,7 +20,7 @@ public class OrderJsonTests {
 
     @Test
     void testSerialize() throws Exception {
-        var order = new Order(394L, "1234567890", "Book Name", 9.90, 1,
+        var order = new Order(394L, "1234567890", "Book Name", Price.of("9.90"), 1,
                 OrderStatus.ACCEPTED, Instant.now(), Instant.now(), "john", "john", 21);
         var jsonContent = json.write(order);
         assertThat(jsonContent).extractingJsonPathNumberValue("@.id")
@@ -29,7 +30,7 @@ public class OrderJsonTests {
         assertThat(jsonContent).extractingJsonPathStringValue("@.bookName")
                 .isEqualTo(order.bookName());
         assertThat(jsonContent).extractingJsonPathNumberValue("@.bookPrice")
-                .isEqualTo(order.bookPrice());
+                .isEqualTo(9.9);
         assertThat(jsonContent).extractingJsonPathNumberValue("@.quantity")
                 .isEqualTo(order.quantity());
         assertThat(jsonContent).extractingJsonPathStringValue("@.status")